@@ -0,0 +1,209 @@
+package bench;
+
+import common.metrics.ConcurrentMetrics;
+import common.metrics.Metrics;
+import common.metrics.NoOpMetrics;
+import common.metrics.SimpleMetrics;
+import graph.dagsp.DagShortestPaths;
+import graph.gen.GraphGenerator;
+import graph.model.CsrGraph;
+import graph.scc.CondensationGraphBuilder;
+import graph.scc.TarjanSCC;
+import graph.topo.KahnTopoSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of instrumentation in the per-edge loops of Tarjan, Kahn and DAG-SP.
+ * metrics=none runs uninstrumented copies of the Tarjan, Kahn and DAG-SP
+ * loops; noop should match them. JMH forks a JVM per parameter value, so each fork's call
+ * sites see a single Metrics type, as a production run would.
+ * mvn -Pjmh package
+ * java -cp target/asik4.jar org.openjdk.jmh.Main MetricsBenchmark -p n=1000000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class MetricsBenchmark {
+
+    @Param({ "none", "noop", "simple", "concurrent" })
+    public String metrics;
+
+    @Param({ "1000000" })
+    public int n;
+
+    private CsrGraph g;
+    private CsrGraph dag;
+    private int[] topo;
+    private int src;
+
+    @Setup
+    public void setup() {
+        g = new GraphGenerator(42L).vertices(n).density(GraphGenerator.Density.MEDIUM)
+                .plantedSccs(Math.max(1, n / 100)).generate();
+        TarjanSCC.Result scc = new TarjanSCC().compute(g, new SimpleMetrics());
+        dag = new CondensationGraphBuilder().build(g, scc.count(), scc.compId);
+        topo = new KahnTopoSort().sort(dag, new SimpleMetrics()).order;
+        src = topo[0];
+    }
+
+    private Metrics newMetrics() {
+        switch (metrics) {
+            case "none":
+            case "noop":
+                return NoOpMetrics.INSTANCE;
+            case "simple":
+                return new SimpleMetrics();
+            case "concurrent":
+                return new ConcurrentMetrics();
+            default:
+                throw new IllegalArgumentException("Unknown metrics: " + metrics);
+        }
+    }
+
+    @Benchmark
+    public TarjanSCC.Result tarjan() {
+        if ("none".equals(metrics))
+            return uninstrumentedTarjan(g);
+        return new TarjanSCC().compute(g, newMetrics());
+    }
+
+    @Benchmark
+    public int[] kahn() {
+        if ("none".equals(metrics))
+            return uninstrumentedKahn(dag);
+        return new KahnTopoSort().sort(dag, newMetrics()).order;
+    }
+
+    @Benchmark
+    public int[] shortest() {
+        if ("none".equals(metrics))
+            return uninstrumentedShortest(dag, src, topo);
+        return new DagShortestPaths().shortest(dag, src, topo, newMetrics()).dist;
+    }
+
+    /** TarjanSCC.compute without the Metrics calls. */
+    private static TarjanSCC.Result uninstrumentedTarjan(CsrGraph g) {
+        int n = g.n;
+        int[] offsets = g.offsets, targets = g.targets;
+        int[] idx = new int[n];
+        int[] low = new int[n];
+        int[] cursor = new int[n];
+        boolean[] onSt = new boolean[n];
+        int[] st = new int[n];
+        int[] call = new int[n];
+        int sp = 0, csp = 0, time = 0;
+        int[] members = new int[n];
+        int[] compStart = new int[n + 1];
+        int k = 0, filled = 0;
+        int[] compId = new int[n];
+        Arrays.fill(compId, -1);
+
+        for (int root = 0; root < n; root++) {
+            if (idx[root] != 0)
+                continue;
+            idx[root] = low[root] = ++time;
+            cursor[root] = offsets[root];
+            st[sp++] = root;
+            onSt[root] = true;
+            call[csp++] = root;
+
+            while (csp > 0) {
+                int u = call[csp - 1];
+                if (cursor[u] < offsets[u + 1]) {
+                    int v = targets[cursor[u]++];
+                    if (idx[v] == 0) {
+                        idx[v] = low[v] = ++time;
+                        cursor[v] = offsets[v];
+                        st[sp++] = v;
+                        onSt[v] = true;
+                        call[csp++] = v;
+                    } else if (onSt[v]) {
+                        low[u] = Math.min(low[u], idx[v]);
+                    }
+                    continue;
+                }
+
+                csp--;
+                if (low[u] == idx[u]) {
+                    int id = k++;
+                    while (true) {
+                        int v = st[--sp];
+                        onSt[v] = false;
+                        compId[v] = id;
+                        members[filled++] = v;
+                        if (v == u)
+                            break;
+                    }
+                    compStart[k] = filled;
+                }
+                if (csp > 0) {
+                    int parent = call[csp - 1];
+                    low[parent] = Math.min(low[parent], low[u]);
+                }
+            }
+        }
+        return new TarjanSCC.Result(compId, members, k == n ? compStart : Arrays.copyOf(compStart, k + 1));
+    }
+
+    /** KahnTopoSort.sort without the Metrics calls. */
+    private static int[] uninstrumentedKahn(CsrGraph dag) {
+        int n = dag.n;
+        int[] indeg = new int[n];
+        for (int i = 0; i < dag.targets.length; i++)
+            indeg[dag.targets[i]]++;
+        int[] order = new int[n];
+        int head = 0, tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (indeg[v] == 0)
+                order[tail++] = v;
+        }
+        while (head < tail) {
+            int u = order[head++];
+            for (int i = dag.offsets[u]; i < dag.offsets[u + 1]; i++) {
+                int v = dag.targets[i];
+                if (--indeg[v] == 0)
+                    order[tail++] = v;
+            }
+        }
+        return order;
+    }
+
+    /** DagShortestPaths.shortest without the Metrics calls. */
+    private static int[] uninstrumentedShortest(CsrGraph dag, int src, int[] topo) {
+        int n = dag.n;
+        int[] dist = new int[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, DagShortestPaths.INF);
+        Arrays.fill(parent, -1);
+        dist[src] = 0;
+        for (int u : topo) {
+            if (dist[u] == DagShortestPaths.INF)
+                continue;
+            for (int i = dag.offsets[u]; i < dag.offsets[u + 1]; i++) {
+                int v = dag.targets[i];
+                int cand = dist[u] + dag.weights[i];
+                if (cand < dist[v]) {
+                    dist[v] = cand;
+                    parent[v] = u;
+                }
+            }
+        }
+        return dist;
+    }
+}
@@ -0,0 +1,107 @@
+package bench;
+
+import common.metrics.SimpleMetrics;
+import graph.dagsp.DagLongestPath;
+import graph.dagsp.DagShortestPaths;
+import graph.gen.GraphGenerator;
+import graph.model.CsrGraph;
+import graph.scc.CondensationGraphBuilder;
+import graph.scc.KosarajuSCC;
+import graph.scc.TarjanSCC;
+import graph.topo.KahnTopoSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for each pipeline stage over synthetic graph families.
+ * mvn -Pjmh package
+ * java -cp target/asik4.jar org.openjdk.jmh.Main PipelineBenchmark -p n=1000000 -rf json -rff jmh-result.json
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class PipelineBenchmark {
+
+    /** sparseDag, denseDag, cyclicK (n/100 planted SCCs), chain */
+    @Param({ "sparseDag", "denseDag", "cyclicK", "chain" })
+    public String family;
+
+    @Param({ "100000", "1000000" })
+    public int n;
+
+    private CsrGraph g;
+    private TarjanSCC.Result scc;
+    private CsrGraph dag;
+    private int[] topo;
+    private int src;
+
+    @Setup
+    public void setup() {
+        switch (family) {
+            case "sparseDag":
+                g = new GraphGenerator(42L).vertices(n).density(GraphGenerator.Density.SPARSE).generate();
+                break;
+            case "denseDag":
+                g = new GraphGenerator(42L).vertices(n).density(GraphGenerator.Density.DENSE).generate();
+                break;
+            case "cyclicK":
+                g = new GraphGenerator(42L).vertices(n).density(GraphGenerator.Density.MEDIUM)
+                        .plantedSccs(Math.max(1, n / 100)).generate();
+                break;
+            case "chain":
+                g = BenchSupport.chain(n);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown family: " + family);
+        }
+        scc = new TarjanSCC().compute(g, new SimpleMetrics());
+        dag = new CondensationGraphBuilder().build(g, scc.count(), scc.compId);
+        topo = new KahnTopoSort().sort(dag, new SimpleMetrics()).order;
+        src = topo[0];
+    }
+
+    @Benchmark
+    public TarjanSCC.Result tarjan() {
+        return new TarjanSCC().compute(g, new SimpleMetrics());
+    }
+
+    /** g.reverse() is cached after the first call, so this measures the two passes, not the transpose. */
+    @Benchmark
+    public TarjanSCC.Result kosaraju() {
+        return new KosarajuSCC().compute(g, new SimpleMetrics());
+    }
+
+    @Benchmark
+    public CsrGraph condensation() {
+        return new CondensationGraphBuilder().build(g, scc.count(), scc.compId);
+    }
+
+    @Benchmark
+    public KahnTopoSort.Result kahn() {
+        return new KahnTopoSort().sort(dag, new SimpleMetrics());
+    }
+
+    @Benchmark
+    public DagShortestPaths.Result shortest() {
+        return new DagShortestPaths().shortest(dag, src, topo, new SimpleMetrics());
+    }
+
+    @Benchmark
+    public DagLongestPath.Result longest() {
+        return new DagLongestPath().longest(dag, src, topo);
+    }
+}
@@ -0,0 +1,95 @@
+package bench;
+
+import graph.model.CsrGraph;
+
+import java.util.SplittableRandom;
+
+/** Shared helpers for the command-line benchmarks in this package. */
+final class BenchSupport {
+
+    private BenchSupport() {
+    }
+
+    /** Heap in use after a few GC hints; good enough for coarse footprint numbers. */
+    static long usedHeapAfterGc() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    /** Uniform random directed graph with weights 1..9, seeded. */
+    static CsrGraph randomGraph(int n, int m, long seed) {
+        SplittableRandom r = new SplittableRandom(seed);
+        CsrGraph.Builder b = new CsrGraph.Builder(n, m);
+        for (int i = 0; i < m; i++)
+            b.addEdge(r.nextInt(n), r.nextInt(n), 1 + r.nextInt(9));
+        return b.build();
+    }
+
+    /**
+     * One giant SCC over the first half of the vertices (ring + random chords)
+     * feeding many 4-cycles over the second half, linked into a DAG.
+     */
+    static CsrGraph giantPlusSmallSccs(int n, long seed) {
+        SplittableRandom r = new SplittableRandom(seed);
+        int giant = n / 2;
+        CsrGraph.Builder b = new CsrGraph.Builder(n, 4 * n);
+        for (int v = 0; v < giant; v++) {
+            b.addEdge(v, (v + 1) % giant, 1 + r.nextInt(9));
+            b.addEdge(v, r.nextInt(giant), 1 + r.nextInt(9));
+        }
+        for (int v = giant; v + 3 < n; v += 4) {
+            for (int k = 0; k < 4; k++)
+                b.addEdge(v + k, v + (k + 1) % 4, 1 + r.nextInt(9));
+            b.addEdge(r.nextInt(giant), v, 1 + r.nextInt(9));
+            if (v + 4 < n)
+                b.addEdge(v, v + 4 + r.nextInt(Math.min(64, n - v - 4)), 1 + r.nextInt(9));
+        }
+        return b.build();
+    }
+
+    /**
+     * Wide layered DAG: layers x width vertices, each linking to 3 vertices at
+     * nearby positions (+-2, wrapping) in the next layer, weights 1..9.
+     */
+    static CsrGraph layered(int layers, int width, long seed) {
+        SplittableRandom r = new SplittableRandom(seed);
+        CsrGraph.Builder b = new CsrGraph.Builder(layers * width, (layers - 1) * width * 3);
+        for (int l = 0; l + 1 < layers; l++) {
+            for (int i = 0; i < width; i++) {
+                for (int k = 0; k < 3; k++) {
+                    int j = Math.floorMod(i + r.nextInt(-2, 3), width);
+                    b.addEdge(l * width + i, (l + 1) * width + j, 1 + r.nextInt(9));
+                }
+            }
+        }
+        return b.build();
+    }
+
+    /** Path 0 -> 1 -> ... -> n-1. */
+    static CsrGraph chain(int n) {
+        CsrGraph.Builder b = new CsrGraph.Builder(n, n);
+        for (int u = 0; u + 1 < n; u++)
+            b.addEdge(u, u + 1, 1);
+        return b.build();
+    }
+
+    static int intArg(String[] args, String name, int def) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (name.equals(args[i]))
+                return Integer.parseInt(args[i + 1]);
+        }
+        return def;
+    }
+
+    static String mb(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,68 @@
+package bench;
+
+import graph.model.CsrGraph;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * CSR construction throughput (edges/s) of the sequential counting sort vs
+ * CsrGraph.Builder.build(pool) across thread counts, with and without
+ * per-vertex target sorting, on a random edge batch.
+ * java -Xmx4g -cp target/asik4.jar bench.GraphBuildBench [--n 2000000] [--m 20000000] [--threads 32] [--rounds 3]
+ */
+public final class GraphBuildBench {
+
+    public static void main(String[] args) {
+        int n = BenchSupport.intArg(args, "--n", 2_000_000);
+        int m = BenchSupport.intArg(args, "--m", 20_000_000);
+        int maxThreads = BenchSupport.intArg(args, "--threads", Runtime.getRuntime().availableProcessors());
+        int rounds = BenchSupport.intArg(args, "--rounds", 3);
+
+        SplittableRandom r = new SplittableRandom(42L);
+        int[] us = new int[m], vs = new int[m], ws = new int[m];
+        for (int i = 0; i < m; i++) {
+            us[i] = r.nextInt(n);
+            vs[i] = r.nextInt(n);
+            ws[i] = 1 + r.nextInt(9);
+        }
+        CsrGraph.Builder b = new CsrGraph.Builder(n, m).addEdges(us, vs, ws, 0, m);
+        System.out.println("n=" + n + " m=" + m);
+
+        System.out.println("| build | sortTargets | threads | best(ms) | Medges/s | speedup |");
+        System.out.println("|---|---|---|---|---|---|");
+        for (boolean sorted : new boolean[] { false, true }) {
+            b.sortTargets(sorted);
+            long seq = best(rounds, () -> b.build().edgeCount());
+            print("sequential", sorted, 1, seq, m, seq);
+            for (int t = 1; t <= maxThreads; t *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(t);
+                try {
+                    long ns = best(rounds, () -> b.build(pool).edgeCount());
+                    print("parallel", sorted, t, ns, m, seq);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    private static void print(String name, boolean sorted, int threads, long ns, int m, long seq) {
+        System.out.printf("| %s | %b | %d | %d | %.1f | %.2f |%n", name, sorted, threads, ns / 1_000_000,
+                m * 1e3 / ns, (double) seq / ns);
+    }
+
+    private interface Run {
+        int run();
+    }
+
+    private static long best(int rounds, Run r) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long t0 = System.nanoTime();
+            r.run();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,84 @@
+package bench;
+
+import graph.model.CsrGraph;
+import graph.model.Edge;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory/throughput comparison: boxed List&lt;List&lt;Edge&gt;&gt; adjacency vs
+ * {@link CsrGraph}.
+ * java -Xmx4g -cp target/asik4.jar bench.GraphLayoutBench [--n 1000000] [--m 10000000] [--rounds 5]
+ */
+public final class GraphLayoutBench {
+
+    public static void main(String[] args) {
+        int n = BenchSupport.intArg(args, "--n", 1_000_000);
+        int m = BenchSupport.intArg(args, "--m", 10_000_000);
+        int rounds = BenchSupport.intArg(args, "--rounds", 5);
+        System.out.println("n=" + n + " m=" + m);
+
+        long base = BenchSupport.usedHeapAfterGc();
+        long t0 = System.nanoTime();
+        CsrGraph csr = BenchSupport.randomGraph(n, m, 42L);
+        long csrBuild = System.nanoTime() - t0;
+        long csrHeap = BenchSupport.usedHeapAfterGc() - base;
+
+        t0 = System.nanoTime();
+        List<List<Edge>> lists = toLists(csr);
+        long listBuild = System.nanoTime() - t0;
+        long listHeap = BenchSupport.usedHeapAfterGc() - base - csrHeap;
+
+        long csrBest = Long.MAX_VALUE, listBest = Long.MAX_VALUE, check = 0;
+        for (int r = 0; r < rounds; r++) {
+            t0 = System.nanoTime();
+            check += scanCsr(csr);
+            csrBest = Math.min(csrBest, System.nanoTime() - t0);
+            t0 = System.nanoTime();
+            check -= scanLists(lists);
+            listBest = Math.min(listBest, System.nanoTime() - t0);
+        }
+
+        System.out.println("| layout | heap | build(ms) | scan(ms) | edges/s |");
+        System.out.println("|---|---|---|---|---|");
+        row("List<List<Edge>>", listHeap, listBuild, listBest, m);
+        row("CSR", csrHeap, csrBuild, csrBest, m);
+        if (check != 0)
+            System.out.println("checksum mismatch: " + check);
+    }
+
+    private static List<List<Edge>> toLists(CsrGraph g) {
+        List<List<Edge>> adj = new ArrayList<>(g.n);
+        for (int u = 0; u < g.n; u++) {
+            List<Edge> out = new ArrayList<>();
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++)
+                out.add(new Edge(u, g.targets[i], g.weights[i]));
+            adj.add(out);
+        }
+        return adj;
+    }
+
+    private static long scanCsr(CsrGraph g) {
+        long sum = 0;
+        for (int u = 0; u < g.n; u++) {
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++)
+                sum += g.targets[i] ^ g.weights[i];
+        }
+        return sum;
+    }
+
+    private static long scanLists(List<List<Edge>> adj) {
+        long sum = 0;
+        for (List<Edge> out : adj) {
+            for (Edge e : out)
+                sum += e.v ^ e.w;
+        }
+        return sum;
+    }
+
+    private static void row(String name, long heap, long buildNs, long scanNs, int m) {
+        System.out.printf("| %s | %s | %d | %d | %.0f |%n", name, BenchSupport.mb(heap),
+                buildNs / 1_000_000, scanNs / 1_000_000, m / (scanNs / 1e9));
+    }
+}
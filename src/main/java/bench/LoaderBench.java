@@ -0,0 +1,122 @@
+package bench;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import common.io.BinaryGraphIO;
+import common.io.JsonLoader;
+import graph.model.CsrGraph;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Load time and peak heap of the streaming JsonLoader vs the previous
+ * ObjectMapper.readValue(Dataset) path and the binary CSR format, on a
+ * generated dataset of ~--mb size.
+ * java -Xmx4g -cp target/asik4.jar bench.LoaderBench [--mb 500] [--file path] [--keep 1]
+ */
+public final class LoaderBench {
+
+    public static void main(String[] args) throws IOException {
+        int mb = BenchSupport.intArg(args, "--mb", 500);
+        boolean keep = BenchSupport.intArg(args, "--keep", 0) == 1;
+        Path file = null;
+        for (int i = 0; i + 1 < args.length; i++) {
+            if ("--file".equals(args[i]))
+                file = Path.of(args[i + 1]);
+        }
+        boolean generated = file == null || !Files.exists(file);
+        if (generated) {
+            if (file == null)
+                file = Files.createTempFile("loader-bench", ".json");
+            write(file, mb * 1024L * 1024L);
+        }
+        System.out.println("file=" + file + " size=" + BenchSupport.mb(Files.size(file)));
+
+        System.out.println("| loader | edges | time(ms) | peak heap |");
+        System.out.println("|---|---|---|---|");
+        Path f = file;
+        measure("databind (old)", () -> databind(f));
+        measure("streaming", () -> JsonLoader.loadCsr(f));
+        Path bin = Files.createTempFile("loader-bench", BinaryGraphIO.EXTENSION);
+        BinaryGraphIO.convert(f, bin);
+        measure("binary (mmap)", () -> BinaryGraphIO.read(bin));
+        Files.deleteIfExists(bin);
+
+        if (generated && !keep)
+            Files.deleteIfExists(file);
+    }
+
+    private interface Load {
+        CsrGraph load() throws IOException;
+    }
+
+    private static void measure(String name, Load load) throws IOException {
+        BenchSupport.usedHeapAfterGc();
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans();
+        pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long t0 = System.nanoTime();
+        CsrGraph g = load.load();
+        long ns = System.nanoTime() - t0;
+        long peak = 0;
+        for (MemoryPoolMXBean p : pools) {
+            if (p.getType() == MemoryType.HEAP)
+                peak += p.getPeakUsage().getUsed();
+        }
+        System.out.printf("| %s | %d | %d | %s |%n", name, g.edgeCount(), ns / 1_000_000, BenchSupport.mb(peak));
+    }
+
+    /** The loader as it was before streaming: full Dataset tree, then the builder. */
+    private static CsrGraph databind(Path f) throws IOException {
+        Dataset ds = new ObjectMapper().readValue(f.toFile(), Dataset.class);
+        CsrGraph.Builder b = new CsrGraph.Builder(ds.n, ds.edges.size());
+        for (DEdge e : ds.edges)
+            b.addEdge(e.u, e.v, e.w);
+        return b.build();
+    }
+
+    /** Pretty-printed dataset in the data/ format, roughly targetBytes long. */
+    private static void write(Path f, long targetBytes) throws IOException {
+        int m = (int) Math.min(Integer.MAX_VALUE - 8, targetBytes / 60); // ~60 bytes per pretty edge
+        int n = Math.max(2, m / 10);
+        SplittableRandom r = new SplittableRandom(42L);
+        try (JsonGenerator gen = new JsonFactory().createGenerator(f.toFile(), JsonEncoding.UTF8)) {
+            gen.useDefaultPrettyPrinter();
+            gen.writeStartObject();
+            gen.writeBooleanField("directed", true);
+            gen.writeNumberField("n", n);
+            gen.writeArrayFieldStart("edges");
+            for (int i = 0; i < m; i++) {
+                gen.writeStartObject();
+                gen.writeNumberField("u", r.nextInt(n));
+                gen.writeNumberField("v", r.nextInt(n));
+                gen.writeNumberField("w", 1 + r.nextInt(9));
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeNumberField("source", 0);
+            gen.writeStringField("weight_model", "edge");
+            gen.writeEndObject();
+        }
+    }
+
+    static class Dataset {
+        public Boolean directed;
+        public int n;
+        public List<DEdge> edges;
+        public Integer source;
+        public String weight_model;
+    }
+
+    static class DEdge {
+        public int u, v, w;
+    }
+}
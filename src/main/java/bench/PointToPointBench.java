@@ -0,0 +1,70 @@
+package bench;
+
+import common.metrics.SimpleMetrics;
+import graph.dagsp.DagShortestPaths;
+import graph.dagsp.PointToPointPaths;
+import graph.model.CsrGraph;
+import graph.topo.KahnTopoSort;
+
+import java.util.SplittableRandom;
+
+/**
+ * Point-to-point DAG queries: full single-source pass + path reconstruction vs
+ * the cone-pruned PointToPointPaths, on a wide layered DAG (--layers x
+ * --width, each vertex linking to 3 neighbours-by-position in the next layer).
+ * Each query picks a random source and a destination --hops layers further
+ * along a random walk, so every pair is reachable.
+ * java -cp target/asik4.jar bench.PointToPointBench [--layers 200] [--width 500] [--hops 20] [--queries 500]
+ */
+public final class PointToPointBench {
+
+    public static void main(String[] args) {
+        int layers = BenchSupport.intArg(args, "--layers", 200);
+        int width = BenchSupport.intArg(args, "--width", 500);
+        int hops = Math.min(layers - 1, BenchSupport.intArg(args, "--hops", 20));
+        int queries = BenchSupport.intArg(args, "--queries", 500);
+
+        CsrGraph dag = BenchSupport.layered(layers, width, 17);
+        int[] topo = new KahnTopoSort().sort(dag, new SimpleMetrics()).order;
+        System.out.println("n=" + dag.n + " m=" + dag.edgeCount() + " hops=" + hops + " queries=" + queries);
+
+        SplittableRandom r = new SplittableRandom(7);
+        int[][] pairs = new int[queries][];
+        for (int q = 0; q < queries; q++) {
+            int u = r.nextInt((layers - hops) * width);
+            int s = u;
+            for (int h = 0; h < hops; h++)
+                u = dag.targets[dag.offsets[u] + r.nextInt(dag.outDegree(u))];
+            pairs[q] = new int[] { s, u };
+        }
+
+        DagShortestPaths sp = new DagShortestPaths();
+        PointToPointPaths p2p = new PointToPointPaths(dag, topo);
+        long fullNs = 0, prunedNs = 0, touched = 0;
+        for (int pass = 0; pass < 2; pass++) { // first pass warms up the JIT
+            long check = 0;
+            long t0 = System.nanoTime();
+            for (int[] p : pairs) {
+                DagShortestPaths.Result res = sp.shortest(dag, p[0], topo, new SimpleMetrics());
+                check += res.dist[p[1]] + DagShortestPaths.reconstructPath(p[0], p[1], res.parent).length;
+            }
+            fullNs = System.nanoTime() - t0;
+
+            touched = 0;
+            t0 = System.nanoTime();
+            for (int[] p : pairs) {
+                PointToPointPaths.Result res = p2p.shortest(p[0], p[1], new SimpleMetrics());
+                check -= res.dist + res.path.length;
+                touched += res.touched;
+            }
+            prunedNs = System.nanoTime() - t0;
+            if (check != 0)
+                throw new IllegalStateException("Pruned answers differ from full runs");
+        }
+
+        System.out.println("| mode | avg query (us) | avg vertices touched |");
+        System.out.println("|---|---|---|");
+        System.out.printf("| full single-source | %d | %d |%n", fullNs / queries / 1000, dag.n);
+        System.out.printf("| src->dst cone | %d | %d |%n", prunedNs / queries / 1000, touched / queries);
+    }
+}
@@ -0,0 +1,101 @@
+package bench;
+
+import common.metrics.SimpleMetrics;
+import graph.gen.GraphGenerator;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import graph.scc.TarjanSCC;
+import graph.topo.ReachabilityIndex;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Reachability index build time, size and query latency vs one DFS per query,
+ * on a generated cyclic graph (queried through its condensation) and on a wide
+ * layered DAG. Index answers are checked against the DFS answers.
+ * java -Xmx4g -cp target/asik4.jar bench.ReachabilityBench [--n 1000000] [--width 1000] [--queries 200]
+ */
+public final class ReachabilityBench {
+
+    public static void main(String[] args) {
+        int n = BenchSupport.intArg(args, "--n", 1_000_000);
+        int width = BenchSupport.intArg(args, "--width", 1000);
+        int queries = BenchSupport.intArg(args, "--queries", 200);
+
+        System.out.println("| graph | n | components | build (ms) | intervals | over cap | index size | bytes/component "
+                + "| index query (ns) | DFS query (us) |");
+        System.out.println("|---|---|---|---|---|---|---|---|---|---|");
+
+        GraphGenerator gen = new GraphGenerator(18).vertices(n).density(GraphGenerator.Density.MEDIUM)
+                .plantedSccs(n / 20);
+        Graph cyclic = gen.graph();
+        TarjanSCC.Result scc = new TarjanSCC().compute(cyclic, new SimpleMetrics());
+        long t0 = System.nanoTime();
+        ReachabilityIndex idx = ReachabilityIndex.of(cyclic, scc, new SimpleMetrics());
+        report("generated, " + gen.sccCount() + " planted SCCs", cyclic.csr(), idx, System.nanoTime() - t0,
+                queries);
+
+        CsrGraph dag = BenchSupport.layered(Math.max(2, n / width), width, 18);
+        t0 = System.nanoTime();
+        idx = ReachabilityIndex.of(new Graph(dag), new TarjanSCC().compute(dag, new SimpleMetrics()),
+                new SimpleMetrics());
+        report("layered " + dag.n / width + " x " + width, dag, idx, System.nanoTime() - t0, queries);
+    }
+
+    private static void report(String name, CsrGraph g, ReachabilityIndex idx, long buildNs, int queries) {
+        SplittableRandom r = new SplittableRandom(7);
+        int[][] pairs = new int[queries][];
+        for (int q = 0; q < queries; q++)
+            pairs[q] = new int[] { r.nextInt(g.n), r.nextInt(g.n) };
+
+        boolean[] expected = new boolean[queries];
+        boolean[] seen = new boolean[g.n];
+        int[] stack = new int[g.n];
+        long t0 = System.nanoTime();
+        for (int q = 0; q < queries; q++)
+            expected[q] = dfs(g, pairs[q][0], pairs[q][1], seen, stack);
+        long dfsNs = (System.nanoTime() - t0) / queries;
+
+        long queried = 0, hits = 0;
+        t0 = System.nanoTime();
+        do { // repeat the batch for at least 200 ms
+            for (int q = 0; q < queries; q++) {
+                if (idx.reachable(pairs[q][0], pairs[q][1]))
+                    hits++;
+            }
+            queried += queries;
+        } while (System.nanoTime() - t0 < 200_000_000L);
+        long idxNs = (System.nanoTime() - t0) / queried;
+        for (int q = 0; q < queries; q++) {
+            if (idx.reachable(pairs[q][0], pairs[q][1]) != expected[q])
+                throw new IllegalStateException("Index disagrees with DFS on " + pairs[q][0] + " -> " + pairs[q][1]);
+        }
+
+        System.out.printf("| %s | %d | %d | %d | %d | %d | %s | %.1f | %d | %d |%n", name, g.n, idx.vertexCount(),
+                buildNs / 1_000_000, idx.intervalCount(), idx.overflowCount(), BenchSupport.mb(idx.sizeInBytes()),
+                (double) idx.sizeInBytes() / idx.vertexCount(), idxNs, dfsNs / 1000);
+        if (hits < 0)
+            System.out.println(); // keeps the query loop from being optimized away
+    }
+
+    private static boolean dfs(CsrGraph g, int s, int t, boolean[] seen, int[] stack) {
+        Arrays.fill(seen, false);
+        int sp = 0;
+        seen[s] = true;
+        stack[sp++] = s;
+        while (sp > 0) {
+            int u = stack[--sp];
+            if (u == t)
+                return true;
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int v = g.targets[i];
+                if (!seen[v]) {
+                    seen[v] = true;
+                    stack[sp++] = v;
+                }
+            }
+        }
+        return false;
+    }
+}
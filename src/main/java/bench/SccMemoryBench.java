@@ -0,0 +1,65 @@
+package bench;
+
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import graph.scc.KosarajuSCC;
+import graph.scc.PearceSCC;
+import graph.scc.TarjanSCC;
+
+/**
+ * Bytes per vertex of TarjanSCC vs PearceSCC vs KosarajuSCC: retained result (measured heap
+ * after GC) and an estimate of the working arrays during the DFS, computed
+ * from the engine's array layout rather than measured. A
+ * sparse random graph (--m defaults to n) leaves mostly singleton components,
+ * the worst case for per-component lists.
+ * java -Xmx8g -cp target/asik4.jar bench.SccMemoryBench [--n 10000000] [--m n]
+ */
+public final class SccMemoryBench {
+
+    public static void main(String[] args) {
+        int n = BenchSupport.intArg(args, "--n", 10_000_000);
+        int m = BenchSupport.intArg(args, "--m", n);
+        CsrGraph g = BenchSupport.randomGraph(n, m, 42L);
+        System.out.println("n=" + g.n + " m=" + g.edgeCount());
+
+        long base = BenchSupport.usedHeapAfterGc();
+        long t0 = System.nanoTime();
+        TarjanSCC.Result tarjan = new TarjanSCC().compute(g, new SimpleMetrics());
+        long tarjanNs = System.nanoTime() - t0;
+        long tarjanHeap = BenchSupport.usedHeapAfterGc() - base;
+        int components = tarjan.count();
+        tarjan = null;
+
+        base = BenchSupport.usedHeapAfterGc();
+        t0 = System.nanoTime();
+        TarjanSCC.Result pearce = new PearceSCC().compute(g, new SimpleMetrics());
+        long pearceNs = System.nanoTime() - t0;
+        long pearceHeap = BenchSupport.usedHeapAfterGc() - base;
+        if (pearce.count() != components)
+            throw new IllegalStateException("Component counts differ: " + components + " vs " + pearce.count());
+        pearce = null;
+
+        // Kosaraju's cost includes building the transpose, which it keeps cached on g
+        base = BenchSupport.usedHeapAfterGc();
+        t0 = System.nanoTime();
+        TarjanSCC.Result kosaraju = new KosarajuSCC().compute(g, new SimpleMetrics());
+        long kosarajuNs = System.nanoTime() - t0;
+        long kosarajuHeap = BenchSupport.usedHeapAfterGc() - base;
+        if (kosaraju.count() != components)
+            throw new IllegalStateException("Component counts differ: " + components + " vs " + kosaraju.count());
+
+        System.out.println("components=" + components);
+        System.out.println("| engine | result | result B/vertex | est. working B/vertex | time(ms) |");
+        System.out.println("|---|---|---|---|---|");
+        // Tarjan: idx, low, cursor, st, call + onSt; Pearce: rindex, stack, cursor + root bit;
+        // Kosaraju: finish, stack, cursor + seen, plus the transpose (counted in its result column)
+        row("tarjan", tarjanHeap, n, 5 * 4 + 1, "5 int + 1 boolean", tarjanNs);
+        row("pearce", pearceHeap, n, 3 * 4 + 1.0 / 8, "3 int + 1 bit", pearceNs);
+        row("kosaraju", kosarajuHeap, n, 3 * 4 + 1, "3 int + 1 boolean", kosarajuNs);
+    }
+
+    private static void row(String name, long heap, int n, double working, String formula, long ns) {
+        System.out.printf("| %s | %s | %.1f | %.1f (%s) | %d |%n", name, BenchSupport.mb(heap), (double) heap / n,
+                working, formula, ns / 1_000_000);
+    }
+}
@@ -0,0 +1,53 @@
+package bench;
+
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import graph.scc.ParallelSCC;
+import graph.scc.TarjanSCC;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Scaling of ParallelSCC across thread counts vs sequential TarjanSCC on a
+ * graph with one giant SCC and many small ones.
+ * java -Xmx4g -cp target/asik4.jar bench.SccScalingBench [--n 2000000] [--threads 32] [--rounds 3]
+ */
+public final class SccScalingBench {
+
+    public static void main(String[] args) {
+        int n = BenchSupport.intArg(args, "--n", 2_000_000);
+        int maxThreads = BenchSupport.intArg(args, "--threads", Runtime.getRuntime().availableProcessors());
+        int rounds = BenchSupport.intArg(args, "--rounds", 3);
+        CsrGraph g = BenchSupport.giantPlusSmallSccs(n, 42L);
+        System.out.println("n=" + g.n + " m=" + g.edgeCount());
+
+        long tarjan = best(rounds, () -> new TarjanSCC().compute(g, new SimpleMetrics()).count());
+        System.out.println("| engine | threads | best(ms) | speedup vs Tarjan |");
+        System.out.println("|---|---|---|---|");
+        System.out.printf("| tarjan | 1 | %d | 1.00 |%n", tarjan / 1_000_000);
+        for (int t = 1; t <= maxThreads; t *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(t);
+            try {
+                ParallelSCC engine = new ParallelSCC(pool);
+                long ns = best(rounds, () -> engine.compute(g, new SimpleMetrics()).count());
+                System.out.printf("| parallel | %d | %d | %.2f |%n", t, ns / 1_000_000, (double) tarjan / ns);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private interface Run {
+        int run();
+    }
+
+    private static long best(int rounds, Run r) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long t0 = System.nanoTime();
+            r.run();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best;
+    }
+}
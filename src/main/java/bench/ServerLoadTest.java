@@ -0,0 +1,112 @@
+package bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Load-test client for graph.server.MainServer: --clients connections each
+ * send --requests random SHORTEST/LONGEST queries (one outstanding request per
+ * connection) and time every round trip. Prints p50/p99/max latency and
+ * throughput. With --hubs K sources are drawn from K fixed vertices (the
+ * repeated-source workload the server's result cache targets).
+ * java -cp target/asik4.jar bench.ServerLoadTest --port 7070 [--clients 16] [--requests 2000] [--hubs 0]
+ */
+public final class ServerLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int port = BenchSupport.intArg(args, "--port", 7070);
+        int clients = BenchSupport.intArg(args, "--clients", 16);
+        int requests = BenchSupport.intArg(args, "--requests", 2000);
+        int hubs = BenchSupport.intArg(args, "--hubs", 0);
+
+        int n;
+        try (Connection c = new Connection(port)) {
+            String info = c.ask("INFO");
+            n = Integer.parseInt(info.replaceAll(".*\\bn=(\\d+).*", "$1"));
+        }
+
+        long[][] latencies = new long[clients][];
+        List<Thread> threads = new ArrayList<>();
+        long t0 = System.nanoTime();
+        for (int k = 0; k < clients; k++) {
+            int id = k;
+            Thread t = new Thread(() -> latencies[id] = run(port, n, requests, hubs, id));
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads)
+            t.join();
+        long wallNs = System.nanoTime() - t0;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.println("clients=" + clients + " requests/client=" + requests + " n=" + n + " hubs=" + hubs);
+        System.out.println("| p50 (us) | p99 (us) | max (us) | throughput (req/s) |");
+        System.out.println("|---|---|---|---|");
+        System.out.printf("| %d | %d | %d | %.0f |%n", percentile(all, 0.50) / 1000, percentile(all, 0.99) / 1000,
+                all[all.length - 1] / 1000, all.length * 1e9 / wallNs);
+    }
+
+    private static long[] run(int port, int n, int requests, int hubs, int seed) {
+        SplittableRandom r = new SplittableRandom(seed);
+        int[] hubSet = new SplittableRandom(42).ints(hubs, 0, n).toArray(); // same hubs for every client
+        long[] lat = new long[requests];
+        try (Connection c = new Connection(port)) {
+            for (int i = 0; i < requests; i++) {
+                int src = hubs > 0 ? hubSet[r.nextInt(hubs)] : r.nextInt(n);
+                String q = (r.nextBoolean() ? "SHORTEST " : "LONGEST ") + src + " " + r.nextInt(n);
+                long t = System.nanoTime();
+                String reply = c.ask(q);
+                lat[i] = System.nanoTime() - t;
+                if (!reply.startsWith("OK"))
+                    throw new IllegalStateException("Bad reply to '" + q + "': " + reply);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Load client failed", e);
+        }
+        return lat;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static final class Connection implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final Writer out;
+
+        Connection(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setTcpNoDelay(true);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+        }
+
+        String ask(String line) throws IOException {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+            String reply = in.readLine();
+            if (reply == null)
+                throw new IOException("Server closed the connection");
+            return reply;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.write("QUIT\n");
+            out.flush();
+            socket.close();
+        }
+    }
+}
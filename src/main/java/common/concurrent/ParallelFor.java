@@ -0,0 +1,36 @@
+package common.concurrent;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join loop over [lo, hi): halves the range until it is at most grain
+ * long, then runs the body on each piece. Invoke it inside the pool that
+ * should do the work (pool.invoke(...) or task.invoke() from a worker).
+ */
+public final class ParallelFor extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    public interface Body {
+        void run(int lo, int hi);
+    }
+
+    private final int lo, hi, grain;
+    private final Body body;
+
+    public ParallelFor(int lo, int hi, int grain, Body body) {
+        this.lo = lo;
+        this.hi = hi;
+        this.grain = Math.max(1, grain);
+        this.body = body;
+    }
+
+    @Override
+    protected void compute() {
+        if (hi - lo <= grain) {
+            body.run(lo, hi);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        invokeAll(new ParallelFor(lo, mid, grain, body), new ParallelFor(mid, hi, grain, body));
+    }
+}
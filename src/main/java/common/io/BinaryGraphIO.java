@@ -0,0 +1,145 @@
+package common.io;
+
+import common.metrics.Metrics;
+import graph.model.CsrGraph;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary CSR format, little-endian ints:
+ * magic "CSRG", version, n, m, flags (bit0 directed, bit1 has source), source,
+ * then offsets[n + 1], targets[m], weights[m].
+ * Reading memory-maps the file and bulk-copies each section into the CSR
+ * arrays, so loading costs one memcpy per array instead of parsing, plus one
+ * pass that checks offsets are monotonic from 0 to m and targets lie in [0, n).
+ */
+public final class BinaryGraphIO {
+    public static final String EXTENSION = ".bin";
+
+    private static final int MAGIC = 0x47525343; // "CSRG" read little-endian
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 6;
+    private static final int CHUNK_INTS = 1 << 28; // 1 GiB per mapping
+
+    private BinaryGraphIO() {
+    }
+
+    public static boolean isBinary(Path path) {
+        return path.getFileName().toString().endsWith(EXTENSION);
+    }
+
+    public static void write(CsrGraph g, Path path) {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            int flags = (g.directed ? 1 : 0) | (g.source != null ? 2 : 0);
+            int[] header = { MAGIC, VERSION, g.n, g.edgeCount(), flags, g.source != null ? g.source : -1 };
+            long pos = 0;
+            pos = copy(ch, FileChannel.MapMode.READ_WRITE, pos, header);
+            pos = copy(ch, FileChannel.MapMode.READ_WRITE, pos, g.offsets);
+            pos = copy(ch, FileChannel.MapMode.READ_WRITE, pos, g.targets);
+            copy(ch, FileChannel.MapMode.READ_WRITE, pos, g.weights);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write binary graph: " + path, e);
+        }
+    }
+
+    /**
+     * Assembles a binary graph from in-memory offsets and targets/weights
+     * sections already on disk as {@link IntFile}s, without loading the
+     * sections into heap.
+     */
+    public static void writeSections(Path path, int n, int[] offsets, Path targets, Path weights, Metrics m) {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                FileChannel t = FileChannel.open(targets, StandardOpenOption.READ);
+                FileChannel w = FileChannel.open(weights, StandardOpenOption.READ)) {
+            int edges = offsets[n];
+            if (t.size() != 4L * edges || w.size() != 4L * edges)
+                throw new IOException("Section sizes do not match m=" + edges);
+            int[] header = { MAGIC, VERSION, n, edges, 1, -1 };
+            long pos = 0;
+            pos = copy(ch, FileChannel.MapMode.READ_WRITE, pos, header);
+            pos = copy(ch, FileChannel.MapMode.READ_WRITE, pos, offsets);
+            pos = transfer(t, ch, pos);
+            transfer(w, ch, pos);
+            m.addBytesRead(8L * edges);
+            m.addBytesWritten(4L * (HEADER_INTS + n + 1 + 2L * edges));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write binary graph: " + path, e);
+        }
+    }
+
+    public static CsrGraph read(Path path) {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (ch.size() < 4L * HEADER_INTS)
+                throw new IOException("File too short for header");
+            int[] header = new int[HEADER_INTS];
+            long pos = copy(ch, FileChannel.MapMode.READ_ONLY, 0, header);
+            if (header[0] != MAGIC || header[1] != VERSION)
+                throw new IOException("Not a version " + VERSION + " binary graph");
+            int n = header[2], m = header[3], flags = header[4];
+            if (n < 0 || m < 0 || ch.size() != 4L * (HEADER_INTS + n + 1 + 2L * m))
+                throw new IOException("File size does not match n=" + n + " m=" + m);
+
+            int[] offsets = new int[n + 1];
+            int[] targets = new int[m];
+            int[] weights = new int[m];
+            pos = copy(ch, FileChannel.MapMode.READ_ONLY, pos, offsets);
+            pos = copy(ch, FileChannel.MapMode.READ_ONLY, pos, targets);
+            copy(ch, FileChannel.MapMode.READ_ONLY, pos, weights);
+            validate(n, offsets, targets);
+            Integer source = (flags & 2) != 0 ? header[5] : null;
+            return new CsrGraph(n, (flags & 1) != 0, source, offsets, targets, weights);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RuntimeException("Failed to load binary graph: " + path, e);
+        }
+    }
+
+    private static void validate(int n, int[] offsets, int[] targets) throws IOException {
+        if (offsets[0] != 0 || offsets[n] != targets.length)
+            throw new IOException("Corrupt binary graph: offsets span [" + offsets[0] + ", " + offsets[n]
+                    + "] for m=" + targets.length);
+        for (int u = 0; u < n; u++) {
+            if (offsets[u + 1] < offsets[u])
+                throw new IOException("Corrupt binary graph: offsets decrease at vertex " + u);
+        }
+        for (int i = 0; i < targets.length; i++) {
+            if (targets[i] < 0 || targets[i] >= n)
+                throw new IOException("Corrupt binary graph: target " + targets[i] + " of edge " + i
+                        + " out of range for n=" + n);
+        }
+    }
+
+    /** Converts a JSON dataset to the binary format. */
+    public static void convert(Path json, Path bin) {
+        write(JsonLoader.loadCsr(json), bin);
+    }
+
+    private static long transfer(FileChannel from, FileChannel to, long pos) throws IOException {
+        long size = from.size();
+        for (long done = 0; done < size;)
+            done += from.transferTo(done, size - done, to.position(pos + done));
+        return pos + size;
+    }
+
+    /** Maps [pos, pos + 4 * a.length) and copies a into it (READ_WRITE) or out of it. */
+    private static long copy(FileChannel ch, FileChannel.MapMode mode, long pos, int[] a) throws IOException {
+        for (int from = 0; from < a.length; from += CHUNK_INTS) {
+            int len = Math.min(CHUNK_INTS, a.length - from);
+            MappedByteBuffer map = ch.map(mode, pos, 4L * len);
+            IntBuffer ints = map.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            if (mode == FileChannel.MapMode.READ_ONLY)
+                ints.get(a, from, len);
+            else
+                ints.put(a, from, len);
+            pos += 4L * len;
+        }
+        return pos;
+    }
+}
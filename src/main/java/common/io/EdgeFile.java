@@ -0,0 +1,186 @@
+package common.io;
+
+import common.metrics.Metrics;
+import graph.model.CsrGraph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Flat binary edge list for external-memory pipelines, little-endian ints:
+ * magic "EDGS", version, n, then one (u, v, w) triple per edge.
+ * Unlike the CSR format it is written in a single streaming pass, needs no
+ * per-vertex arrays and has no 2^31 edge limit. Readers and writers go
+ * through one fixed-size buffer and report their I/O to
+ * {@link Metrics#addBytesRead} / {@link Metrics#addBytesWritten}.
+ */
+public final class EdgeFile {
+    public static final String EXTENSION = ".edges";
+    public static final int EDGE_BYTES = 12;
+
+    private static final int MAGIC = 0x53474445; // "EDGS" read little-endian
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private EdgeFile() {
+    }
+
+    public static boolean isEdgeFile(Path path) {
+        return path.getFileName().toString().endsWith(EXTENSION);
+    }
+
+    /** Streams a JSON dataset into an edge file; returns the number of edges. */
+    public static long fromJson(Path json, Path out, Metrics m) {
+        // n is only known once the whole file is parsed, so patch the header afterwards
+        try (Writer w = new Writer(out, 0, m)) {
+            int n = JsonLoader.streamEdges(json, w::add);
+            if (n == 0 && w.edgeCount() > 0)
+                throw new IOException("Edges without a positive 'n' field in " + json);
+            w.vertices(n);
+            return w.edgeCount();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write edge file: " + out, e);
+        }
+    }
+
+    public static long fromCsr(CsrGraph g, Path out, Metrics m) {
+        try (Writer w = new Writer(out, g.n, m)) {
+            for (int u = 0; u < g.n; u++) {
+                for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++)
+                    w.add(u, g.targets[i], g.weights[i]);
+            }
+            return w.edgeCount();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write edge file: " + out, e);
+        }
+    }
+
+    public static final class Writer implements Closeable {
+        private final FileChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final Metrics m;
+        private int n;
+        private long edges;
+
+        public Writer(Path path, int n, Metrics m) throws IOException {
+            this.ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.n = n;
+            this.m = m;
+            buf.putInt(MAGIC).putInt(VERSION).putInt(n);
+        }
+
+        public void add(int u, int v, int w) throws IOException {
+            if (buf.remaining() < EDGE_BYTES)
+                flush();
+            buf.putInt(u).putInt(v).putInt(w);
+            edges++;
+        }
+
+        public long edgeCount() {
+            return edges;
+        }
+
+        /** Sets the vertex count in the header; for inputs whose n comes last. */
+        public void vertices(int n) {
+            this.n = n;
+        }
+
+        private void flush() throws IOException {
+            buf.flip();
+            m.addBytesWritten(buf.remaining());
+            while (buf.hasRemaining())
+                ch.write(buf);
+            buf.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                ByteBuffer header = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(n);
+                header.flip();
+                ch.write(header, 8);
+            } finally {
+                ch.close();
+            }
+        }
+    }
+
+    /**
+     * Sequential reader; after {@link #next()} returns true the edge is in u, v, w.
+     * Endpoints outside [0, n) are reported as a corrupt file.
+     */
+    public static final class Reader implements Closeable {
+        public final int n;
+        public final long edgeCount;
+        public int u, v, w;
+
+        private final Path path;
+        private final FileChannel ch;
+        private final ByteBuffer buf;
+        private final Metrics m;
+        private boolean eof;
+
+        public Reader(Path path, Metrics m) throws IOException {
+            this.path = path;
+            this.ch = FileChannel.open(path, StandardOpenOption.READ);
+            this.m = m;
+            try {
+                long size = ch.size();
+                // small files (late colouring rounds) get a small buffer
+                buf = ByteBuffer.allocateDirect((int) Math.max(HEADER_BYTES, Math.min(BUFFER_BYTES, size)))
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                buf.limit(0);
+                fill();
+                if (size < HEADER_BYTES || buf.getInt() != MAGIC || buf.getInt() != VERSION)
+                    throw new IOException("Not a version " + VERSION + " edge file: " + path);
+                this.n = buf.getInt();
+                if (n < 0 || (size - HEADER_BYTES) % EDGE_BYTES != 0)
+                    throw new IOException("Corrupt edge file: " + path);
+                this.edgeCount = (size - HEADER_BYTES) / EDGE_BYTES;
+            } catch (IOException e) {
+                ch.close();
+                throw e;
+            }
+        }
+
+        public boolean next() throws IOException {
+            if (buf.remaining() < EDGE_BYTES) {
+                fill();
+                if (buf.remaining() < EDGE_BYTES)
+                    return false;
+            }
+            u = buf.getInt();
+            v = buf.getInt();
+            w = buf.getInt();
+            if (u < 0 || u >= n || v < 0 || v >= n)
+                throw new IOException("Corrupt edge file: edge " + u + "->" + v + " out of range for n=" + n + " in "
+                        + path);
+            return true;
+        }
+
+        private void fill() throws IOException {
+            buf.compact();
+            while (!eof && buf.hasRemaining()) {
+                int read = ch.read(buf);
+                if (read < 0)
+                    eof = true;
+                else
+                    m.addBytesRead(read);
+            }
+            buf.flip();
+        }
+
+        @Override
+        public void close() throws IOException {
+            ch.close();
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package common.io;
+
+import common.metrics.Metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * External sort of weighted (u, v) pairs that collapses equal pairs to their
+ * min and max weight. Pairs are buffered up to runCapacity, sorted and
+ * collapsed in memory, and spilled to workDir as sorted runs of
+ * (u, v, min, max) records; {@link #finish} k-way merges the runs (or drains
+ * the buffer directly if nothing was spilled). At most maxFanIn runs are
+ * open at once: with more, groups of maxFanIn are first merged into longer
+ * runs, pass by pass. Heap use is 16 bytes per buffered pair plus
+ * {@link #RUN_BUFFER_BYTES} of direct buffer per open run, one more while an
+ * intermediate pass writes its output.
+ */
+public final class ExternalPairSorter implements Closeable {
+
+    /** Receives collapsed pairs in ascending (u, v) order. */
+    @FunctionalInterface
+    public interface PairSink {
+        void pair(int u, int v, int min, int max) throws IOException;
+    }
+
+    public static final int RUN_BUFFER_BYTES = 1 << 16;
+
+    private static final int RECORD_BYTES = 16;
+    private static final int INSERTION_SORT = 16;
+
+    private final Path workDir;
+    private final Metrics m;
+    private final int maxFanIn;
+    private final long[] keys;
+    private final int[] lo, hi;
+    private int size;
+    private final List<Path> runs = new ArrayList<>();
+    private int spilled, mergePasses;
+
+    public ExternalPairSorter(Path workDir, int runCapacity, int maxFanIn, Metrics m) {
+        if (runCapacity < 1)
+            throw new IllegalArgumentException("runCapacity must be positive: " + runCapacity);
+        if (maxFanIn < 2)
+            throw new IllegalArgumentException("maxFanIn must be at least 2: " + maxFanIn);
+        this.workDir = workDir;
+        this.m = m;
+        this.maxFanIn = maxFanIn;
+        this.keys = new long[runCapacity];
+        this.lo = new int[runCapacity];
+        this.hi = new int[runCapacity];
+    }
+
+    /** u and v must be non-negative. */
+    public void add(int u, int v, int w) throws IOException {
+        if (size == keys.length) {
+            collapse();
+            if (size > keys.length / 2) // mostly distinct pairs: spill instead of re-sorting a full buffer
+                spill();
+        }
+        keys[size] = ((long) u << 32) | v;
+        lo[size] = w;
+        hi[size] = w;
+        size++;
+    }
+
+    /** Runs spilled from the buffer (intermediate merge outputs not included). */
+    public int runs() {
+        return spilled;
+    }
+
+    /** Intermediate merges done because more than maxFanIn runs were spilled. */
+    public int mergePasses() {
+        return mergePasses;
+    }
+
+    public void finish(PairSink sink) throws IOException {
+        collapse();
+        if (runs.isEmpty()) {
+            for (int i = 0; i < size; i++)
+                sink.pair((int) (keys[i] >>> 32), (int) keys[i], lo[i], hi[i]);
+            size = 0;
+            return;
+        }
+        spill();
+
+        while (runs.size() > maxFanIn) {
+            List<Path> group = new ArrayList<>(runs.subList(0, maxFanIn));
+            runs.subList(0, maxFanIn).clear();
+            Path merged = Files.createTempFile(workDir, "run", ".pairs");
+            runs.add(merged);
+            ByteBuffer buf = ByteBuffer.allocateDirect(RUN_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            try (FileChannel ch = FileChannel.open(merged, StandardOpenOption.WRITE)) {
+                merge(group, (u, v, min, max) -> {
+                    if (buf.remaining() < RECORD_BYTES)
+                        drain(buf, ch);
+                    buf.putLong(((long) u << 32) | v).putInt(min).putInt(max);
+                });
+                drain(buf, ch);
+            } finally {
+                for (Path p : group)
+                    Files.deleteIfExists(p);
+            }
+            mergePasses++;
+        }
+        merge(runs, sink);
+    }
+
+    private void merge(List<Path> inputs, PairSink sink) throws IOException {
+        PriorityQueue<Run> heap = new PriorityQueue<>(inputs.size(), (a, b) -> Long.compare(a.key, b.key));
+        try {
+            for (Path p : inputs) {
+                Run r = new Run(p, m);
+                if (r.next())
+                    heap.add(r);
+                else
+                    r.close();
+            }
+            while (!heap.isEmpty()) {
+                Run r = heap.poll();
+                long key = r.key;
+                int min = r.min, max = r.max;
+                while (true) {
+                    if (r.next())
+                        heap.add(r);
+                    else
+                        r.close();
+                    if (heap.isEmpty() || heap.peek().key != key)
+                        break;
+                    r = heap.poll();
+                    min = Math.min(min, r.min);
+                    max = Math.max(max, r.max);
+                }
+                sink.pair((int) (key >>> 32), (int) key, min, max);
+            }
+        } finally {
+            for (Run r : heap)
+                r.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Path p : runs)
+            Files.deleteIfExists(p);
+        runs.clear();
+    }
+
+    /** Sorts the buffer and merges equal keys in place. */
+    private void collapse() {
+        if (size == 0)
+            return;
+        sort(0, size - 1);
+        int out = 0;
+        for (int i = 1; i < size; i++) {
+            if (keys[i] == keys[out]) {
+                lo[out] = Math.min(lo[out], lo[i]);
+                hi[out] = Math.max(hi[out], hi[i]);
+            } else {
+                out++;
+                keys[out] = keys[i];
+                lo[out] = lo[i];
+                hi[out] = hi[i];
+            }
+        }
+        size = out + 1;
+    }
+
+    private void spill() throws IOException {
+        if (size == 0)
+            return;
+        Path run = Files.createTempFile(workDir, "run", ".pairs");
+        runs.add(run);
+        spilled++;
+        ByteBuffer buf = ByteBuffer.allocateDirect(RUN_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel ch = FileChannel.open(run, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < size; i++) {
+                if (buf.remaining() < RECORD_BYTES)
+                    drain(buf, ch);
+                buf.putLong(keys[i]).putInt(lo[i]).putInt(hi[i]);
+            }
+            drain(buf, ch);
+        }
+        size = 0;
+    }
+
+    private void drain(ByteBuffer buf, FileChannel ch) throws IOException {
+        buf.flip();
+        m.addBytesWritten(buf.remaining());
+        while (buf.hasRemaining())
+            ch.write(buf);
+        buf.clear();
+    }
+
+    /** Quicksort of keys[from..to] carrying lo/hi along; recurses on the smaller side only. */
+    private void sort(int from, int to) {
+        while (to - from >= INSERTION_SORT) {
+            int mid = (from + to) >>> 1;
+            if (keys[mid] < keys[from])
+                swap(mid, from);
+            if (keys[to] < keys[from])
+                swap(to, from);
+            if (keys[to] < keys[mid])
+                swap(to, mid);
+            long pivot = keys[mid];
+            int i = from, j = to;
+            while (i <= j) {
+                while (keys[i] < pivot)
+                    i++;
+                while (keys[j] > pivot)
+                    j--;
+                if (i <= j)
+                    swap(i++, j--);
+            }
+            if (j - from < to - i) {
+                sort(from, j);
+                from = i;
+            } else {
+                sort(i, to);
+                to = j;
+            }
+        }
+        for (int i = from + 1; i <= to; i++) {
+            for (int j = i; j > from && keys[j] < keys[j - 1]; j--)
+                swap(j, j - 1);
+        }
+    }
+
+    private void swap(int a, int b) {
+        long k = keys[a];
+        keys[a] = keys[b];
+        keys[b] = k;
+        int t = lo[a];
+        lo[a] = lo[b];
+        lo[b] = t;
+        t = hi[a];
+        hi[a] = hi[b];
+        hi[b] = t;
+    }
+
+    /** Buffered cursor over one spilled run. */
+    private static final class Run implements Closeable {
+        long key;
+        int min, max;
+        private final FileChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(RUN_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final Metrics m;
+
+        Run(Path path, Metrics m) throws IOException {
+            this.ch = FileChannel.open(path, StandardOpenOption.READ);
+            this.m = m;
+            buf.limit(0);
+        }
+
+        boolean next() throws IOException {
+            if (buf.remaining() < RECORD_BYTES) {
+                buf.compact();
+                int read;
+                while (buf.hasRemaining() && (read = ch.read(buf)) > 0)
+                    m.addBytesRead(read);
+                buf.flip();
+                if (buf.remaining() < RECORD_BYTES)
+                    return false;
+            }
+            key = buf.getLong();
+            min = buf.getInt();
+            max = buf.getInt();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            ch.close();
+        }
+    }
+}
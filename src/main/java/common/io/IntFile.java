@@ -0,0 +1,127 @@
+package common.io;
+
+import common.metrics.Metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Headerless little-endian int arrays on disk: per-vertex outputs of the
+ * external-memory pipeline and raw CSR sections before they are assembled
+ * into a {@link BinaryGraphIO} file. Written through one buffer; read back
+ * through memory mappings for random access.
+ */
+public final class IntFile {
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final int CHUNK_SHIFT = 28; // 1 GiB of ints per mapping
+
+    private IntFile() {
+    }
+
+    public static void write(Path path, int[] a, Metrics m) {
+        try (Writer w = new Writer(path, m)) {
+            for (int x : a)
+                w.add(x);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write int file: " + path, e);
+        }
+    }
+
+    public static int[] read(Path path) {
+        try (Mapped in = new Mapped(path)) {
+            if (in.length() > Integer.MAX_VALUE - 8)
+                throw new IOException("Too large for an int[]: " + in.length() + " ints");
+            int[] a = new int[(int) in.length()];
+            for (int i = 0; i < a.length; i++)
+                a[i] = in.get(i);
+            return a;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read int file: " + path, e);
+        }
+    }
+
+    public static final class Writer implements Closeable {
+        private final FileChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final Metrics m;
+        private long count;
+
+        public Writer(Path path, Metrics m) throws IOException {
+            this.ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.m = m;
+        }
+
+        public void add(int x) throws IOException {
+            if (!buf.hasRemaining())
+                flush();
+            buf.putInt(x);
+            count++;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        private void flush() throws IOException {
+            buf.flip();
+            m.addBytesWritten(buf.remaining());
+            while (buf.hasRemaining())
+                ch.write(buf);
+            buf.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                ch.close();
+            }
+        }
+    }
+
+    /** Read-only random access; pages come from the OS cache, not the heap. */
+    public static final class Mapped implements Closeable {
+        private final FileChannel ch;
+        private final IntBuffer[] chunks;
+        private final long length;
+
+        public Mapped(Path path) throws IOException {
+            this.ch = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                this.length = ch.size() / 4;
+                int count = (int) ((length + (1L << CHUNK_SHIFT) - 1) >>> CHUNK_SHIFT);
+                this.chunks = new IntBuffer[count];
+                for (int c = 0; c < count; c++) {
+                    long from = (long) c << CHUNK_SHIFT;
+                    long len = Math.min(1L << CHUNK_SHIFT, length - from);
+                    chunks[c] = ch.map(FileChannel.MapMode.READ_ONLY, 4 * from, 4 * len)
+                            .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                }
+            } catch (IOException e) {
+                ch.close();
+                throw e;
+            }
+        }
+
+        public long length() {
+            return length;
+        }
+
+        public int get(long i) {
+            return chunks[(int) (i >>> CHUNK_SHIFT)].get((int) (i & ((1L << CHUNK_SHIFT) - 1)));
+        }
+
+        @Override
+        public void close() throws IOException {
+            ch.close();
+        }
+    }
+}
@@ -1,46 +1,111 @@
 package common.io;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import graph.model.CsrGraph;
 import graph.model.Graph;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Loads the assignment's graph JSON format.
+ * Edges are read straight off the token stream into a {@link CsrGraph.Builder},
+ * so no per-edge objects are created and fields may appear in any order.
+ * {@link #streamEdges} hands the edges to a sink instead, for inputs too large
+ * to hold in heap. The CSR layout is built in parallel on the common pool.
  */
 public final class JsonLoader {
-    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /** Receives edges in file order. */
+    @FunctionalInterface
+    public interface EdgeSink {
+        void edge(int u, int v, int w) throws IOException;
+    }
 
     private JsonLoader() {
     }
 
     public static Graph loadGraph(Path path) {
-        try {
-            Dataset ds = MAPPER.readValue(path.toFile(), Dataset.class);
-            boolean directed = ds.directed == null || ds.directed; // default true
-            Graph g = new Graph(ds.n, directed, ds.source);
-            if (ds.edges != null) {
-                for (DEdge e : ds.edges) {
-                    g.addEdge(e.u, e.v, e.w);
+        return new Graph(loadCsr(path));
+    }
+
+    public static CsrGraph loadCsr(Path path) {
+        CsrGraph.Builder b = new CsrGraph.Builder(0, 1024);
+        parse(path, b, (u, v, w) -> b.addEdge(u, v, w));
+        return b.build(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Streams the edges of a JSON dataset into sink without building a graph.
+     * Returns the vertex count from the 'n' field (0 if absent).
+     */
+    public static int streamEdges(Path path, EdgeSink sink) {
+        CsrGraph.Builder header = new CsrGraph.Builder(0, 1);
+        parse(path, header, sink);
+        return header.vertexCount();
+    }
+
+    /** Header fields go to b, edges to sink. */
+    private static void parse(Path path, CsrGraph.Builder b, EdgeSink sink) {
+        try (JsonParser p = FACTORY.createParser(path.toFile())) {
+            if (p.nextToken() != JsonToken.START_OBJECT)
+                throw new JsonParseException(p, "Expected a JSON object");
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken value = p.nextToken();
+                switch (field) {
+                    case "directed":
+                        b.directed(value == JsonToken.VALUE_NULL || p.getBooleanValue()); // default true
+                        break;
+                    case "n":
+                        b.vertices(p.getIntValue());
+                        break;
+                    case "source":
+                        b.source(value == JsonToken.VALUE_NULL ? null : p.getIntValue());
+                        break;
+                    case "edges":
+                        if (value != JsonToken.VALUE_NULL)
+                            readEdges(p, sink);
+                        break;
+                    default:
+                        p.skipChildren();
                 }
             }
-            return g;
         } catch (IOException e) {
             throw new RuntimeException("Failed to load graph JSON: " + path, e);
         }
     }
 
-    static class Dataset {
-        public Boolean directed;
-        public int n;
-        public List<DEdge> edges;
-        public Integer source;
-        public String weight_model;
-    }
-
-    static class DEdge {
-        public int u, v, w;
+    private static void readEdges(JsonParser p, EdgeSink sink) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY)
+            throw new JsonParseException(p, "Expected 'edges' to be an array");
+        while (p.nextToken() == JsonToken.START_OBJECT) {
+            int u = 0, v = 0, w = 0;
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "u":
+                        u = p.getIntValue();
+                        break;
+                    case "v":
+                        v = p.getIntValue();
+                        break;
+                    case "w":
+                        w = p.getIntValue();
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            sink.edge(u, v, w);
+        }
+        if (p.currentToken() != JsonToken.END_ARRAY)
+            throw new JsonParseException(p, "Expected edge objects in 'edges'");
     }
 }
@@ -0,0 +1,32 @@
+package common.io;
+
+import graph.model.CsrGraph;
+
+import java.nio.file.Path;
+
+/**
+ * CLI:
+ * java common.io.MainConvert --input data/your.json --output data/your.bin
+ *
+ * Converts a JSON dataset to the binary CSR format read by {@link BinaryGraphIO}.
+ */
+public final class MainConvert {
+    public static void main(String[] args) {
+        if (args.length < 4 || !"--input".equals(args[0]) || !"--output".equals(args[2])) {
+            System.err.println("Usage: java common.io.MainConvert --input data/your.json --output data/your.bin");
+            System.exit(1);
+        }
+        Path input = Path.of(args[1]);
+        Path output = Path.of(args[3]);
+
+        long t0 = System.nanoTime();
+        CsrGraph g = JsonLoader.loadCsr(input);
+        long t1 = System.nanoTime();
+        BinaryGraphIO.write(g, output);
+        long t2 = System.nanoTime();
+        System.out.println("n=" + g.n + " m=" + g.edgeCount()
+                + " parse(ns)=" + (t1 - t0)
+                + " write(ns)=" + (t2 - t1)
+                + " -> " + output);
+    }
+}
@@ -0,0 +1,213 @@
+package common.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe metrics for instances shared by parallel engines or server
+ * threads. Counters are {@link LongAdder}s, so concurrent increments land on
+ * separate cells instead of contending on one word; getters sum the cells.
+ * Phase starts are tracked per thread, so several threads may time the same
+ * phase at once and their durations add up. reset() must not race with
+ * recording.
+ */
+public final class ConcurrentMetrics implements Metrics {
+    private final LongAdder dfsVisits = new LongAdder(), dfsEdgeScans = new LongAdder();
+    private final LongAdder kahnPushes = new LongAdder(), kahnPops = new LongAdder();
+    private final LongAdder relaxations = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder(), cacheMisses = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder(), bytesWritten = new LongAdder();
+    private volatile long t0, t1;
+    private final ThreadLocal<Map<String, Long>> phaseStart = ThreadLocal.withInitial(HashMap::new);
+    private final Map<String, LongAdder> phaseTotal = new ConcurrentHashMap<>();
+    private final List<String> phaseOrder = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void incDfsVisits() {
+        dfsVisits.increment();
+    }
+
+    @Override
+    public void incDfsEdgeScans() {
+        dfsEdgeScans.increment();
+    }
+
+    @Override
+    public void addDfsVisits(long count) {
+        dfsVisits.add(count);
+    }
+
+    @Override
+    public void addDfsEdgeScans(long count) {
+        dfsEdgeScans.add(count);
+    }
+
+    @Override
+    public long getDfsVisits() {
+        return dfsVisits.sum();
+    }
+
+    @Override
+    public long getDfsEdgeScans() {
+        return dfsEdgeScans.sum();
+    }
+
+    @Override
+    public void incKahnPushes() {
+        kahnPushes.increment();
+    }
+
+    @Override
+    public void incKahnPops() {
+        kahnPops.increment();
+    }
+
+    @Override
+    public void addKahnPushes(long count) {
+        kahnPushes.add(count);
+    }
+
+    @Override
+    public void addKahnPops(long count) {
+        kahnPops.add(count);
+    }
+
+    @Override
+    public long getKahnPushes() {
+        return kahnPushes.sum();
+    }
+
+    @Override
+    public long getKahnPops() {
+        return kahnPops.sum();
+    }
+
+    @Override
+    public void incRelaxations() {
+        relaxations.increment();
+    }
+
+    @Override
+    public void addRelaxations(long count) {
+        relaxations.add(count);
+    }
+
+    @Override
+    public long getRelaxations() {
+        return relaxations.sum();
+    }
+
+    @Override
+    public void incCacheHits() {
+        cacheHits.increment();
+    }
+
+    @Override
+    public void incCacheMisses() {
+        cacheMisses.increment();
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    @Override
+    public void addBytesRead(long count) {
+        bytesRead.add(count);
+    }
+
+    @Override
+    public void addBytesWritten(long count) {
+        bytesWritten.add(count);
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public void start() {
+        t0 = System.nanoTime();
+    }
+
+    @Override
+    public void stop() {
+        t1 = System.nanoTime();
+    }
+
+    @Override
+    public long elapsedNanos() {
+        return t1 - t0;
+    }
+
+    @Override
+    public void startPhase(String name) {
+        total(name);
+        phaseStart.get().put(name, System.nanoTime());
+    }
+
+    @Override
+    public void stopPhase(String name) {
+        Long started = phaseStart.get().remove(name);
+        if (started == null)
+            throw new IllegalStateException("Phase not started on this thread: " + name);
+        total(name).add(System.nanoTime() - started);
+    }
+
+    @Override
+    public long phaseNanos(String name) {
+        LongAdder total = phaseTotal.get(name);
+        return total == null ? 0L : total.sum();
+    }
+
+    @Override
+    public Map<String, Long> phases() {
+        Map<String, Long> out = new LinkedHashMap<>();
+        for (String name : phaseOrder)
+            out.put(name, phaseNanos(name));
+        return Collections.unmodifiableMap(out);
+    }
+
+    private LongAdder total(String name) {
+        LongAdder total = phaseTotal.get(name);
+        if (total != null)
+            return total;
+        synchronized (phaseOrder) {
+            return phaseTotal.computeIfAbsent(name, k -> {
+                phaseOrder.add(k);
+                return new LongAdder();
+            });
+        }
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder a : new LongAdder[] { dfsVisits, dfsEdgeScans, kahnPushes, kahnPops, relaxations,
+                cacheHits, cacheMisses, bytesRead, bytesWritten })
+            a.reset();
+        t0 = t1 = 0L;
+        phaseStart.remove();
+        synchronized (phaseOrder) {
+            phaseTotal.clear();
+            phaseOrder.clear();
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package common.metrics;
 
+import java.util.Map;
+
+/**
+ * Counters and timers the algorithms report into. Pick the implementation by
+ * use: {@link SimpleMetrics} for one thread, {@link ConcurrentMetrics} when
+ * threads share one instance, {@link NoOpMetrics} to switch reporting off.
+ */
 public interface Metrics {
     // SCC
     void incDfsVisits();
 
     void incDfsEdgeScans();
 
+    void addDfsVisits(long count);
+
+    void addDfsEdgeScans(long count);
+
     long getDfsVisits();
 
     long getDfsEdgeScans();
@@ -15,6 +26,10 @@ public interface Metrics {
 
     void incKahnPops();
 
+    void addKahnPushes(long count);
+
+    void addKahnPops(long count);
+
     long getKahnPushes();
 
     long getKahnPops();
@@ -22,8 +37,28 @@ public interface Metrics {
     // DAG-SP
     void incRelaxations();
 
+    void addRelaxations(long count);
+
     long getRelaxations();
 
+    // Result caches
+    void incCacheHits();
+
+    void incCacheMisses();
+
+    long getCacheHits();
+
+    long getCacheMisses();
+
+    // External-memory I/O
+    void addBytesRead(long count);
+
+    void addBytesWritten(long count);
+
+    long getBytesRead();
+
+    long getBytesWritten();
+
     // Timing
     void start();
 
@@ -31,5 +66,15 @@ public interface Metrics {
 
     long elapsedNanos();
 
+    // Named phase timers; time accumulates across start/stop pairs of the same name
+    void startPhase(String name);
+
+    void stopPhase(String name);
+
+    long phaseNanos(String name);
+
+    /** Accumulated nanos per phase, in first-started order. */
+    Map<String, Long> phases();
+
     void reset();
 }
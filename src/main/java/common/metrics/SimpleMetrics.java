@@ -1,10 +1,20 @@
 package common.metrics;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Plain long counters; not thread-safe. */
 public class SimpleMetrics implements Metrics {
     private long dfsVisits, dfsEdgeScans;
     private long kahnPushes, kahnPops;
     private long relaxations;
+    private long cacheHits, cacheMisses;
+    private long bytesRead, bytesWritten;
     private long t0, t1;
+    private final Map<String, Long> phaseStart = new HashMap<>();
+    private final Map<String, Long> phaseTotal = new LinkedHashMap<>();
 
     @Override
     public void incDfsVisits() {
@@ -16,6 +26,16 @@ public class SimpleMetrics implements Metrics {
         dfsEdgeScans++;
     }
 
+    @Override
+    public void addDfsVisits(long count) {
+        dfsVisits += count;
+    }
+
+    @Override
+    public void addDfsEdgeScans(long count) {
+        dfsEdgeScans += count;
+    }
+
     @Override
     public long getDfsVisits() {
         return dfsVisits;
@@ -36,6 +56,16 @@ public class SimpleMetrics implements Metrics {
         kahnPops++;
     }
 
+    @Override
+    public void addKahnPushes(long count) {
+        kahnPushes += count;
+    }
+
+    @Override
+    public void addKahnPops(long count) {
+        kahnPops += count;
+    }
+
     @Override
     public long getKahnPushes() {
         return kahnPushes;
@@ -51,11 +81,56 @@ public class SimpleMetrics implements Metrics {
         relaxations++;
     }
 
+    @Override
+    public void addRelaxations(long count) {
+        relaxations += count;
+    }
+
     @Override
     public long getRelaxations() {
         return relaxations;
     }
 
+    @Override
+    public void incCacheHits() {
+        cacheHits++;
+    }
+
+    @Override
+    public void incCacheMisses() {
+        cacheMisses++;
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    @Override
+    public void addBytesRead(long count) {
+        bytesRead += count;
+    }
+
+    @Override
+    public void addBytesWritten(long count) {
+        bytesWritten += count;
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
     @Override
     public void start() {
         t0 = System.nanoTime();
@@ -71,9 +146,37 @@ public class SimpleMetrics implements Metrics {
         return t1 - t0;
     }
 
+    @Override
+    public void startPhase(String name) {
+        phaseTotal.putIfAbsent(name, 0L);
+        phaseStart.put(name, System.nanoTime());
+    }
+
+    @Override
+    public void stopPhase(String name) {
+        Long started = phaseStart.remove(name);
+        if (started == null)
+            throw new IllegalStateException("Phase not started: " + name);
+        phaseTotal.merge(name, System.nanoTime() - started, Long::sum);
+    }
+
+    @Override
+    public long phaseNanos(String name) {
+        return phaseTotal.getOrDefault(name, 0L);
+    }
+
+    @Override
+    public Map<String, Long> phases() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(phaseTotal));
+    }
+
     @Override
     public void reset() {
         dfsVisits = dfsEdgeScans = kahnPushes = kahnPops = relaxations = 0L;
+        cacheHits = cacheMisses = 0L;
+        bytesRead = bytesWritten = 0L;
         t0 = t1 = 0L;
+        phaseStart.clear();
+        phaseTotal.clear();
     }
 }
@@ -0,0 +1,108 @@
+package graph.dagsp;
+
+import common.metrics.Metrics;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+
+/**
+ * Critical path method on a DAG whose edge weights are durations. Every
+ * vertex may start at time 0, so sources need not be named. A forward pass in
+ * topological order computes the earliest start of every vertex; the project
+ * length is the largest of them. A backward pass over the reversed order
+ * computes the latest start that still meets that length. Slack is latest
+ * minus earliest. An edge u -> v is critical when it has no float
+ * (earliest[u] + w == latest[v]); the critical vertices are the zero-slack
+ * ones. Both passes scan each edge once and use primitive arrays only;
+ * relaxations counts the edge scans.
+ */
+public final class CriticalPath {
+
+    public static final class Result {
+        public final int[] earliest; // earliest start per vertex
+        public final int[] latest; // latest start that keeps the project length
+        public final int[] slack; // latest - earliest
+        public final int length; // project length: max over earliest
+        public final int[] criticalVertices; // zero slack, in topological order
+        public final int[] criticalEdges; // CSR edge indices with zero float, by source in topological order
+
+        public Result(int[] earliest, int[] latest, int[] slack, int length, int[] criticalVertices,
+                int[] criticalEdges) {
+            this.earliest = earliest;
+            this.latest = latest;
+            this.slack = slack;
+            this.length = length;
+            this.criticalVertices = criticalVertices;
+            this.criticalEdges = criticalEdges;
+        }
+    }
+
+    public Result analyze(Graph dag, int[] topo, Metrics m) {
+        return analyze(dag.csr(), topo, m);
+    }
+
+    public Result analyze(CsrGraph dag, int[] topo, Metrics m) {
+        int n = dag.n;
+        if (topo.length != n)
+            throw new IllegalArgumentException("Topological order must cover all " + n + " vertices");
+
+        int[] earliest = new int[n];
+        int length = 0;
+        for (int u : topo) {
+            int eu = earliest[u];
+            length = Math.max(length, eu);
+            for (int i = dag.offsets[u]; i < dag.offsets[u + 1]; i++) {
+                int v = dag.targets[i];
+                earliest[v] = Math.max(earliest[v], eu + dag.weights[i]);
+            }
+        }
+
+        int[] latest = new int[n];
+        int[] slack = new int[n];
+        int critical = 0, criticalEdges = 0;
+        for (int k = n - 1; k >= 0; k--) {
+            int u = topo[k];
+            int lu = length;
+            for (int i = dag.offsets[u]; i < dag.offsets[u + 1]; i++)
+                lu = Math.min(lu, latest[dag.targets[i]] - dag.weights[i]);
+            latest[u] = lu;
+            slack[u] = lu - earliest[u];
+            if (slack[u] == 0)
+                critical++;
+        }
+        m.addRelaxations(2L * dag.edgeCount());
+
+        int[] vertices = new int[critical];
+        int c = 0;
+        for (int u : topo) {
+            if (slack[u] != 0)
+                continue;
+            vertices[c++] = u;
+            for (int i = dag.offsets[u]; i < dag.offsets[u + 1]; i++) {
+                if (earliest[u] + dag.weights[i] == latest[dag.targets[i]])
+                    criticalEdges++;
+            }
+        }
+        int[] edges = new int[criticalEdges];
+        int e = 0;
+        for (int u : vertices) {
+            for (int i = dag.offsets[u]; i < dag.offsets[u + 1]; i++) {
+                if (earliest[u] + dag.weights[i] == latest[dag.targets[i]])
+                    edges[e++] = i;
+            }
+        }
+        return new Result(earliest, latest, slack, length, vertices, edges);
+    }
+
+    /** Source vertex of CSR edge index i (binary search over offsets). */
+    public static int edgeSource(CsrGraph dag, int i) {
+        int lo = 0, hi = dag.n - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (dag.offsets[mid] <= i)
+                lo = mid;
+            else
+                hi = mid - 1;
+        }
+        return lo;
+    }
+}
@@ -1,7 +1,8 @@
 package graph.dagsp;
 
-import graph.model.Edge;
+import graph.model.CsrGraph;
 import graph.model.Graph;
+import graph.topo.KahnTopoSort;
 
 import java.util.Arrays;
 import java.util.List;
@@ -27,6 +28,18 @@ public final class DagLongestPath {
     }
 
     public Result longest(Graph dag, int src, List<Integer> topo) {
+        return longest(dag.csr(), src, KahnTopoSort.toArray(topo));
+    }
+
+    public Result longest(CsrGraph dag, int src, List<Integer> topo) {
+        return longest(dag, src, KahnTopoSort.toArray(topo));
+    }
+
+    public Result longest(Graph dag, int src, int[] topo) {
+        return longest(dag.csr(), src, topo);
+    }
+
+    public Result longest(CsrGraph dag, int src, int[] topo) {
         int n = dag.n;
         int[] best = new int[n];
         int[] parent = new int[n];
@@ -37,9 +50,9 @@ public final class DagLongestPath {
         for (int u : topo) {
             if (best[u] == NEG_INF)
                 continue;
-            for (Edge e : dag.adj.get(u)) {
-                int v = e.v;
-                int cand = best[u] + e.w;
+            for (int i = dag.offsets[u]; i < dag.offsets[u + 1]; i++) {
+                int v = dag.targets[i];
+                int cand = best[u] + dag.weights[i];
                 if (cand > best[v]) {
                     best[v] = cand;
                     parent[v] = u;
@@ -53,21 +66,6 @@ public final class DagLongestPath {
      * Reconstructs path from src to dst using parent[], or empty if unreachable.
      */
     public static int[] reconstructPath(int src, int dst, int[] parent) {
-        if (src == dst && parent[dst] == -1)
-            return new int[] { src };
-        int[] stack = new int[parent.length];
-        int k = 0, cur = dst;
-        while (cur != -1) {
-            stack[k++] = cur;
-            if (cur == src)
-                break;
-            cur = parent[cur];
-        }
-        if (k == 0 || stack[k - 1] != src)
-            return new int[0];
-        int[] path = new int[k];
-        for (int i = 0; i < k; i++)
-            path[i] = stack[k - 1 - i];
-        return path;
+        return DagShortestPaths.reconstructPath(src, dst, parent);
     }
 }
@@ -0,0 +1,198 @@
+package graph.dagsp;
+
+import common.metrics.Metrics;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Bounded LRU cache of single-source DAG path results, keyed by
+ * (graph identity, graph version, source, shortest/longest), so one cache can
+ * serve several graphs. Entries are charged 8 bytes per vertex (value +
+ * parent arrays) plus a fixed overhead, and the least recently used ones are
+ * evicted once the total passes maxBytes. Seeing a newer version of a graph
+ * drops that graph's entries from older versions, so results never outlive the
+ * mutation that made them stale. Thread-safe; a miss computes outside the
+ * lock, so two threads missing on the same key may both compute it.
+ * Cached arrays are shared between callers and must not be modified.
+ */
+public final class DagPathCache {
+
+    private static final long ENTRY_OVERHEAD = 96;
+
+    private final long maxBytes;
+    private final DagShortestPaths sp = new DagShortestPaths();
+    private final DagLongestPath lp = new DagLongestPath();
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private final Map<Object, Long> newest = new WeakHashMap<>(); // newest version seen per graph
+    private long hits, misses, evictions;
+
+    public DagPathCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /** Keyed on the Graph object, so its entries are dropped once it is mutated. */
+    public DagShortestPaths.Result shortest(Graph dag, int src, int[] topo, Metrics m) {
+        CsrGraph csr;
+        long version;
+        synchronized (dag) { // Graph's own lock: no edge can land between the two reads
+            csr = dag.csr();
+            version = dag.version();
+        }
+        return shortest(dag, csr, version, src, topo, m);
+    }
+
+    /**
+     * Keyed on the dag reference; version identifies the graph state dag was
+     * derived from, bump it on every mutation.
+     */
+    public DagShortestPaths.Result shortest(CsrGraph dag, long version, int src, int[] topo, Metrics m) {
+        return shortest(dag, dag, version, src, topo, m);
+    }
+
+    public DagLongestPath.Result longest(Graph dag, int src, int[] topo, Metrics m) {
+        CsrGraph csr;
+        long version;
+        synchronized (dag) {
+            csr = dag.csr();
+            version = dag.version();
+        }
+        return longest(dag, csr, version, src, topo, m);
+    }
+
+    public DagLongestPath.Result longest(CsrGraph dag, long version, int src, int[] topo, Metrics m) {
+        return longest(dag, dag, version, src, topo, m);
+    }
+
+    private DagShortestPaths.Result shortest(Object graph, CsrGraph dag, long version, int src, int[] topo,
+            Metrics m) {
+        Key key = new Key(graph, version, src, false);
+        Entry e = lookup(key, m);
+        if (e == null) {
+            DagShortestPaths.Result r = sp.shortest(dag, src, topo, m);
+            e = store(key, new Entry(r.dist, r.parent));
+        }
+        return new DagShortestPaths.Result(e.values, e.parent);
+    }
+
+    private DagLongestPath.Result longest(Object graph, CsrGraph dag, long version, int src, int[] topo, Metrics m) {
+        Key key = new Key(graph, version, src, true);
+        Entry e = lookup(key, m);
+        if (e == null) {
+            DagLongestPath.Result r = lp.longest(dag, src, topo);
+            e = store(key, new Entry(r.best, r.parent));
+        }
+        return new DagLongestPath.Result(e.values, e.parent, src);
+    }
+
+    private synchronized Entry lookup(Key key, Metrics m) {
+        invalidateBefore(key.graph, key.version);
+        Entry e = entries.get(key);
+        if (e != null) {
+            hits++;
+            m.incCacheHits();
+        } else {
+            misses++;
+            m.incCacheMisses();
+        }
+        return e;
+    }
+
+    private synchronized Entry store(Key key, Entry e) {
+        Long latest = newest.get(key.graph);
+        if (latest != null && key.version < latest || e.bytes > maxBytes)
+            return e; // stale already, or could never fit
+        Entry old = entries.put(key, e);
+        bytes += e.bytes - (old != null ? old.bytes : 0);
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            bytes -= it.next().getValue().bytes;
+            it.remove();
+            evictions++;
+        }
+        return e;
+    }
+
+    private void invalidateBefore(Object graph, long v) {
+        Long latest = newest.get(graph);
+        if (latest != null && v <= latest)
+            return;
+        newest.put(graph, v);
+        if (latest == null)
+            return;
+        entries.entrySet().removeIf(en -> en.getKey().graph == graph && en.getKey().version < v);
+        bytes = 0;
+        for (Entry e : entries.values())
+            bytes += e.bytes;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        newest.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Bytes charged for the entries currently held. */
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    private static final class Key {
+        final Object graph; // compared by identity
+        final long version;
+        final int src;
+        final boolean longest;
+
+        Key(Object graph, long version, int src, boolean longest) {
+            this.graph = graph;
+            this.version = version;
+            this.src = src;
+            this.longest = longest;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key))
+                return false;
+            Key k = (Key) o;
+            return graph == k.graph && version == k.version && src == k.src && longest == k.longest;
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(graph) * 31 + Long.hashCode(version)) * 31 + src * 2 + (longest ? 1 : 0);
+        }
+    }
+
+    private static final class Entry {
+        final int[] values, parent;
+        final long bytes;
+
+        Entry(int[] values, int[] parent) {
+            this.values = values;
+            this.parent = parent;
+            this.bytes = ENTRY_OVERHEAD + 4L * (values.length + parent.length);
+        }
+    }
+}
@@ -1,16 +1,31 @@
 package graph.dagsp;
 
+import common.concurrent.ParallelFor;
 import common.metrics.Metrics;
-import graph.model.Edge;
+import graph.model.CsrGraph;
 import graph.model.Graph;
+import graph.topo.KahnTopoSort;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
 
-/** Single-source shortest paths on a DAG given a valid topological order. */
+/**
+ * Single-source shortest paths on a DAG given a valid topological order.
+ * The batched form answers many sources over one shared order: sources are
+ * grouped into blocks of width k with distances laid out vertex-major
+ * (dist[v * k + j] for lane j), so relaxing an edge touches two contiguous
+ * k-wide rows. Each block starts at the earliest topological rank among its
+ * sources, and blocks run in parallel on a ForkJoinPool. With non-negative
+ * weights the lane loop is branch-free (and vectorizes); it still counts only
+ * improvements as relaxations, via the sign bit of cand - old, so batched and
+ * single-source runs report the same relaxation totals.
+ */
 public final class DagShortestPaths {
 
     public static final int INF = 1_000_000_000;
+    public static final int DEFAULT_BLOCK = 64;
 
     public static final class Result {
         public final int[] dist;
@@ -22,7 +37,39 @@ public final class DagShortestPaths {
         }
     }
 
+    /** Distances from several sources: dist[i][v] is the distance from sources[i] to v. */
+    public static final class MultiResult {
+        public final int[] sources;
+        public final int[][] dist;
+
+        public MultiResult(int[] sources, int[][] dist) {
+            this.sources = sources;
+            this.dist = dist;
+        }
+    }
+
+    /** Receives finished blocks, possibly from several worker threads at once. */
+    public interface BlockSink {
+        /**
+         * lanes[j] is the index into sources of lane j; the distance from that
+         * source to v is dist[v * lanes.length + j].
+         */
+        void accept(int[] lanes, int[] dist);
+    }
+
     public Result shortest(Graph dag, int src, List<Integer> topo, Metrics m) {
+        return shortest(dag.csr(), src, KahnTopoSort.toArray(topo), m);
+    }
+
+    public Result shortest(CsrGraph dag, int src, List<Integer> topo, Metrics m) {
+        return shortest(dag, src, KahnTopoSort.toArray(topo), m);
+    }
+
+    public Result shortest(Graph dag, int src, int[] topo, Metrics m) {
+        return shortest(dag.csr(), src, topo, m);
+    }
+
+    public Result shortest(CsrGraph dag, int src, int[] topo, Metrics m) {
         int n = dag.n;
         int[] dist = new int[n];
         int[] parent = new int[n];
@@ -34,9 +81,9 @@ public final class DagShortestPaths {
         for (int u : topo) {
             if (dist[u] == INF)
                 continue;
-            for (Edge e : dag.adj.get(u)) {
-                int v = e.v;
-                int cand = dist[u] + e.w;
+            for (int i = dag.offsets[u]; i < dag.offsets[u + 1]; i++) {
+                int v = dag.targets[i];
+                int cand = dist[u] + dag.weights[i];
                 if (cand < dist[v]) {
                     dist[v] = cand;
                     parent[v] = u;
@@ -47,6 +94,110 @@ public final class DagShortestPaths {
         return new Result(dist, parent);
     }
 
+    public MultiResult shortestMany(Graph dag, int[] sources, int[] topo, Metrics m) {
+        return shortestMany(dag.csr(), sources, topo, m);
+    }
+
+    /** All rows materialized, so sources.length * n ints; use shortestBlocks to stream instead. */
+    public MultiResult shortestMany(CsrGraph dag, int[] sources, int[] topo, Metrics m) {
+        int n = dag.n;
+        int[][] dist = new int[sources.length][];
+        shortestBlocks(dag, sources, topo, DEFAULT_BLOCK, ForkJoinPool.commonPool(), (lanes, block) -> {
+            int k = lanes.length;
+            for (int j = 0; j < k; j++) {
+                int[] row = new int[n];
+                for (int v = 0; v < n; v++)
+                    row[v] = block[v * k + j];
+                dist[lanes[j]] = row;
+            }
+        }, m);
+        return new MultiResult(sources.clone(), dist);
+    }
+
+    /**
+     * Streams distances for every source to sink, width sources per block.
+     * Sources are grouped by topological rank so each block skips the prefix
+     * of the order that none of its sources can reach.
+     */
+    public void shortestBlocks(CsrGraph dag, int[] sources, int[] topo, int width, ForkJoinPool pool,
+            BlockSink sink, Metrics m) {
+        int n = dag.n;
+        if (width < 1 || (long) n * width > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Block width " + width + " does not fit n=" + n);
+        int[] rank = new int[n];
+        for (int i = 0; i < topo.length; i++)
+            rank[topo[i]] = i;
+        long[] keyed = new long[sources.length];
+        for (int i = 0; i < sources.length; i++)
+            keyed[i] = ((long) rank[sources[i]] << 32) | i;
+        Arrays.sort(keyed);
+
+        boolean nonNegative = nonNegative(dag.weights);
+        int blocks = (sources.length + width - 1) / width;
+        LongAdder relaxations = new LongAdder();
+        pool.invoke(new ParallelFor(0, blocks, 1, (lo, hi) -> {
+            for (int b = lo; b < hi; b++) {
+                int from = b * width, k = Math.min(width, sources.length - from);
+                int[] lanes = new int[k];
+                for (int j = 0; j < k; j++)
+                    lanes[j] = (int) keyed[from + j];
+                int[] dist = new int[n * k];
+                relaxations.add(relaxBlock(dag, topo, (int) (keyed[from] >>> 32), sources, lanes, dist,
+                        nonNegative));
+                sink.accept(lanes, dist);
+            }
+        }));
+        m.addRelaxations(relaxations.sum());
+    }
+
+    /** True if INF + w can neither overflow nor drop below INF for every weight. */
+    private static boolean nonNegative(int[] weights) {
+        for (int w : weights) {
+            if (w < 0 || w > Integer.MAX_VALUE - INF)
+                return false;
+        }
+        return true;
+    }
+
+    private static long relaxBlock(CsrGraph dag, int[] topo, int start, int[] sources, int[] lanes, int[] dist,
+            boolean nonNegative) {
+        int k = lanes.length;
+        int[] offsets = dag.offsets, targets = dag.targets, weights = dag.weights;
+        Arrays.fill(dist, INF);
+        for (int j = 0; j < k; j++)
+            dist[sources[lanes[j]] * k + j] = 0;
+        long relaxed = 0;
+        for (int t = start; t < topo.length; t++) {
+            int u = topo[t], ub = u * k;
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int vb = targets[i] * k, w = weights[i];
+                if (nonNegative) {
+                    // INF + w never beats a value <= INF, so no per-lane test; this loop vectorizes.
+                    // 0 <= old <= INF and cand <= INF + w fit in an int, so cand - old cannot overflow.
+                    int improved = 0;
+                    for (int j = 0; j < k; j++) {
+                        int old = dist[vb + j], cand = dist[ub + j] + w;
+                        improved += (cand - old) >>> 31;
+                        dist[vb + j] = Math.min(old, cand);
+                    }
+                    relaxed += improved;
+                    continue;
+                }
+                for (int j = 0; j < k; j++) {
+                    int du = dist[ub + j];
+                    if (du == INF)
+                        continue;
+                    int cand = du + w;
+                    if (cand < dist[vb + j]) {
+                        dist[vb + j] = cand;
+                        relaxed++;
+                    }
+                }
+            }
+        }
+        return relaxed;
+    }
+
     /**
      * Reconstruct path [src ... dst] using parent[], returns empty if unreachable.
      */
@@ -55,20 +206,19 @@ public final class DagShortestPaths {
             return new int[] { src };
         if (dst < 0 || dst >= parent.length)
             return new int[0];
-        int[] stack = new int[parent.length];
-        int k = 0;
-        int cur = dst;
+        // walk up once to measure, then fill back to front; no n-sized scratch
+        int k = 0, cur = dst;
         while (cur != -1) {
-            stack[k++] = cur;
+            k++;
             if (cur == src)
                 break;
             cur = parent[cur];
         }
-        if (k == 0 || stack[k - 1] != src)
+        if (cur != src)
             return new int[0];
         int[] path = new int[k];
-        for (int i = 0; i < k; i++)
-            path[i] = stack[k - 1 - i];
+        for (cur = dst; k > 0; cur = parent[cur])
+            path[--k] = cur;
         return path;
     }
 }
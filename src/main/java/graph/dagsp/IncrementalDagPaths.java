@@ -0,0 +1,209 @@
+package graph.dagsp;
+
+import common.metrics.Metrics;
+import graph.model.CsrGraph;
+
+import java.util.Arrays;
+
+/**
+ * Single-source shortest or longest paths on a DAG that stay current while
+ * edge weights change. Keeps its own copy of the weights plus the transposed
+ * edge index, so an update only re-pulls the targets of changed edges and,
+ * when a value moves, their successors: vertices are taken from a heap keyed by
+ * topological rank, so each is recomputed once, after all its predecessors.
+ * Work is proportional to the downstream cone of the change, not to the DAG.
+ * relaxations counts the in-edges re-examined.
+ */
+public final class IncrementalDagPaths {
+
+    private final CsrGraph dag;
+    private final int src;
+    private final boolean longest;
+    private final int unreachable;
+    private final int[] weights; // current weight of each CSR edge
+    private final int[] rank; // position in the topological order
+    private final int[] order;
+    private final int[] inOffsets, inEdges; // in-edges of v: forward CSR positions inEdges[inOffsets[v] ..)
+    private final int[] source; // source vertex of each CSR edge
+    private final int[] value, parent;
+
+    // update scratch
+    private final boolean[] queued;
+    private int[] heap = new int[16];
+
+    private IncrementalDagPaths(CsrGraph dag, int src, int[] topo, boolean longest, int[] value, int[] parent) {
+        int n = dag.n, m = dag.edgeCount();
+        this.dag = dag;
+        this.src = src;
+        this.longest = longest;
+        this.unreachable = longest ? DagLongestPath.NEG_INF : DagShortestPaths.INF;
+        this.weights = dag.weights.clone();
+        this.order = topo.clone();
+        this.rank = new int[n];
+        for (int i = 0; i < topo.length; i++)
+            rank[topo[i]] = i;
+        this.value = value;
+        this.parent = parent;
+
+        this.source = new int[m];
+        this.inOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            for (int i = dag.offsets[u]; i < dag.offsets[u + 1]; i++) {
+                source[i] = u;
+                inOffsets[dag.targets[i] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++)
+            inOffsets[v + 1] += inOffsets[v];
+        this.inEdges = new int[m];
+        int[] fill = Arrays.copyOf(inOffsets, n);
+        for (int i = 0; i < m; i++)
+            inEdges[fill[dag.targets[i]]++] = i;
+        this.queued = new boolean[n];
+    }
+
+    public static IncrementalDagPaths shortest(CsrGraph dag, int src, int[] topo, Metrics m) {
+        DagShortestPaths.Result r = new DagShortestPaths().shortest(dag, src, topo, m);
+        return new IncrementalDagPaths(dag, src, topo, false, r.dist, r.parent);
+    }
+
+    public static IncrementalDagPaths longest(CsrGraph dag, int src, int[] topo) {
+        DagLongestPath.Result r = new DagLongestPath().longest(dag, src, topo);
+        return new IncrementalDagPaths(dag, src, topo, true, r.best, r.parent);
+    }
+
+    /** CSR position of the first u -> v edge, or -1. */
+    public int edgeIndex(int u, int v) {
+        for (int i = dag.offsets[u]; i < dag.offsets[u + 1]; i++) {
+            if (dag.targets[i] == v)
+                return i;
+        }
+        return -1;
+    }
+
+    public int weight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * Sets weights[edges[i]] = newWeights[i] and repairs the affected paths.
+     * Returns how many vertices changed value.
+     */
+    public int updateWeights(int[] edges, int[] newWeights, Metrics m) {
+        if (edges.length != newWeights.length)
+            throw new IllegalArgumentException("edges and newWeights differ in length");
+        int size = 0;
+        for (int i = 0; i < edges.length; i++) {
+            int e = edges[i];
+            if (weights[e] == newWeights[i])
+                continue;
+            weights[e] = newWeights[i];
+            int v = dag.targets[e];
+            if (value[source[e]] != unreachable && !queued[v])
+                size = push(size, v);
+        }
+
+        int changed = 0;
+        while (size > 0) {
+            int v = order[heap[0]];
+            size = pop(size);
+            queued[v] = false;
+            if (!pull(v, m))
+                continue;
+            changed++;
+            for (int i = dag.offsets[v]; i < dag.offsets[v + 1]; i++) {
+                int w = dag.targets[i];
+                if (!queued[w])
+                    size = push(size, w);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Recomputes value[v] from its predecessors; true if the value moved.
+     * A parent that still attains the value is kept, so ties do not churn.
+     */
+    private boolean pull(int v, Metrics m) {
+        if (v == src)
+            return false;
+        int best = unreachable, from = -1;
+        boolean parentTight = false;
+        for (int k = inOffsets[v]; k < inOffsets[v + 1]; k++) {
+            m.incRelaxations();
+            int e = inEdges[k], u = source[e];
+            if (value[u] == unreachable)
+                continue;
+            int cand = value[u] + weights[e];
+            if (from == -1 || (longest ? cand > best : cand < best)) {
+                best = cand;
+                from = u;
+            }
+            if (u == parent[v] && cand == value[v])
+                parentTight = true;
+        }
+        if (best == value[v]) {
+            if (!parentTight)
+                parent[v] = from;
+            return false;
+        }
+        value[v] = best;
+        parent[v] = from;
+        return true;
+    }
+
+    /** Current distances (shortest) or best lengths (longest); live array, do not modify. */
+    public int[] values() {
+        return value;
+    }
+
+    /** Current parents; live array, do not modify. */
+    public int[] parent() {
+        return parent;
+    }
+
+    public DagShortestPaths.Result asShortest() {
+        if (longest)
+            throw new IllegalStateException("Tracking longest paths");
+        return new DagShortestPaths.Result(value, parent);
+    }
+
+    public DagLongestPath.Result asLongest() {
+        if (!longest)
+            throw new IllegalStateException("Tracking shortest paths");
+        return new DagLongestPath.Result(value, parent, src);
+    }
+
+    // binary min-heap of topological ranks
+
+    private int push(int size, int v) {
+        queued[v] = true;
+        if (size == heap.length)
+            heap = Arrays.copyOf(heap, size * 2);
+        int r = rank[v], i = size;
+        while (i > 0 && heap[(i - 1) >> 1] > r) {
+            heap[i] = heap[(i - 1) >> 1];
+            i = (i - 1) >> 1;
+        }
+        heap[i] = r;
+        return size + 1;
+    }
+
+    private int pop(int size) {
+        int last = heap[--size];
+        int i = 0;
+        while (true) {
+            int c = 2 * i + 1;
+            if (c >= size)
+                break;
+            if (c + 1 < size && heap[c + 1] < heap[c])
+                c++;
+            if (heap[c] >= last)
+                break;
+            heap[i] = heap[c];
+            i = c;
+        }
+        heap[i] = last;
+        return size;
+    }
+}
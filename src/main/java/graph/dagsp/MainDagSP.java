@@ -5,20 +5,32 @@ import common.metrics.SimpleMetrics;
 import graph.model.Graph;
 import graph.topo.KahnTopoSort;
 import graph.scc.CondensationGraphBuilder;
+import graph.scc.SccAlgorithm;
 import graph.scc.TarjanSCC;
 
 import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class MainDagSP {
 
     private static void usage() {
         System.err.println(
-                "Usage: java graph.dagsp.MainDagSP --input data/graph.json [--src S] [--shortest dst] [--longest dst]");
+                "Usage: java graph.dagsp.MainDagSP --input data/graph.json [--src S] [--shortest dst] [--longest dst]"
+                        + " [--scc tarjan|parallel|pearce|kosaraju] [--sources all|v1,v2,...] [--p2p] [--cpm]");
         System.err.println("Notes:");
         System.err.println("  - If --src is omitted, uses JSON 'source' if available, else 0.");
         System.err.println("  - Computations run on the condensation DAG (SCC-compressed).");
+        System.err.println("  - Parallel condensation edges keep the min weight (shortest) / max weight (longest).");
+        System.err.println("  - --p2p answers --shortest by relaxing only the components between src and dst");
+        System.err.println("    (reachable from src and reaching dst) instead of the whole DAG.");
+        System.err.println("  - --cpm runs the critical path method over the whole DAG (max weights as durations):");
+        System.err.println("    earliest/latest start and slack per component, critical components and edges.");
+        System.err.println("  - --sources runs batched shortest paths from many sources over one topo order;");
+        System.err.println("    'all' means every component and prints only a summary.");
+        System.err.println("  - --input may be a .json dataset or a .bin file from common.io.MainConvert.");
     }
 
     public static void main(String[] args) {
@@ -31,6 +43,10 @@ public final class MainDagSP {
         Integer userSrc = null;
         Integer shortestDst = null;
         Integer longestDst = null;
+        String engine = "tarjan";
+        String sourcesArg = null;
+        boolean p2p = false;
+        boolean cpm = false;
 
         for (int i = 2; i < args.length; i++) {
             switch (args[i]) {
@@ -55,32 +71,51 @@ public final class MainDagSP {
                     }
                     longestDst = Integer.parseInt(args[++i]);
                     break;
+                case "--scc":
+                    if (i + 1 >= args.length) {
+                        usage();
+                        return;
+                    }
+                    engine = args[++i];
+                    break;
+                case "--sources":
+                    if (i + 1 >= args.length) {
+                        usage();
+                        return;
+                    }
+                    sourcesArg = args[++i];
+                    break;
+                case "--p2p":
+                    p2p = true;
+                    break;
+                case "--cpm":
+                    cpm = true;
+                    break;
                 default:
                     usage();
                     return;
             }
         }
 
-        Graph g = Graph.fromJson(input);
+        Graph g = Graph.load(input);
 
         // 1) SCC
         Metrics m = new SimpleMetrics();
-        TarjanSCC tarjan = new TarjanSCC();
+        SccAlgorithm sccAlgo = SccAlgorithm.named(engine);
         m.reset();
         m.start();
-        TarjanSCC.Result scc = tarjan.compute(g, m);
+        TarjanSCC.Result scc = sccAlgo.compute(g, m);
         m.stop();
-        System.out.println("[SCC] count=" + scc.components.size()
+        System.out.println("[SCC] count=" + scc.count()
                 + " dfsVisits=" + m.getDfsVisits()
                 + " dfsEdgeScans=" + m.getDfsEdgeScans()
                 + " time(ns)=" + m.elapsedNanos());
 
-        // 2) Condensation DAG
+        // 2) Condensation DAG (min weights for shortest paths, max weights for longest)
         CondensationGraphBuilder builder = new CondensationGraphBuilder();
-        Graph dag = builder.build(g, scc.components.size(), scc.compId);
-        int dagM = 0;
-        for (int u = 0; u < dag.n; u++)
-            dagM += dag.adj.get(u).size();
+        CondensationGraphBuilder.Result weighted = builder.buildWeighted(g, scc.count(), scc.compId);
+        Graph dag = new Graph(weighted.min);
+        int dagM = dag.edgeCount();
         System.out.println("[Condensation DAG] nodes=" + dag.n + " edges=" + dagM);
 
         // Map original source to its component
@@ -96,19 +131,41 @@ public final class MainDagSP {
         KahnTopoSort kahn = new KahnTopoSort();
         m.reset();
         m.start();
-        List<Integer> topo = kahn.order(dag, m);
+        KahnTopoSort.Result sorted = kahn.sort(dag, m);
         m.stop();
-        if (topo.isEmpty()) {
+        if (!sorted.isDag()) {
             System.err.println("Condensation graph not a DAG (should not happen).");
             System.exit(3);
         }
-        System.out.println("[Topo] order=" + topo);
+        int[] topo = sorted.order;
+        System.out.println("[Topo] order=" + Arrays.toString(topo));
         System.out.println("[Topo] metrics: pushes=" + m.getKahnPushes()
                 + " pops=" + m.getKahnPops()
                 + " time(ns)=" + m.elapsedNanos());
 
-        // 4a) Single-source shortest paths from srcComp
-        if (shortestDst != null) {
+        // 4a) Point-to-point shortest path, pruned to the src -> dst cone
+        if (shortestDst != null && p2p) {
+            int dstComp = scc.compId[Math.max(0, Math.min(shortestDst, g.n - 1))];
+            m.reset();
+            m.start();
+            PointToPointPaths.Result res = new PointToPointPaths(dag.csr(), topo).shortest(srcComp, dstComp, m);
+            m.stop();
+            System.out.println("[DAG-SP p2p] touched=" + res.touched + "/" + dag.n
+                    + " relaxations=" + m.getRelaxations()
+                    + " time(ns)=" + m.elapsedNanos());
+            System.out.println("[DAG-SP p2p] dist to dstComp=" + dstComp + " -> "
+                    + (res.dist == DagShortestPaths.INF ? "INF" : Integer.toString(res.dist)));
+            System.out.println("[DAG-SP p2p] path components: " + Arrays.toString(res.path));
+            if (res.path.length > 0) {
+                System.out.println("[DAG-SP p2p] expanded SCCs (per component in path):");
+                for (int c : res.path) {
+                    System.out.println("  C" + c + " -> " + Arrays.toString(scc.membersOf(c)));
+                }
+            }
+        }
+
+        // 4b) Single-source shortest paths from srcComp
+        if (shortestDst != null && !p2p) {
             int dstComp = scc.compId[Math.max(0, Math.min(shortestDst, g.n - 1))];
             DagShortestPaths sp = new DagShortestPaths();
             m.reset();
@@ -123,16 +180,16 @@ public final class MainDagSP {
             if (path.length > 0) {
                 System.out.println("[DAG-SP shortest] expanded SCCs (per component in path):");
                 for (int c : path) {
-                    System.out.println("  C" + c + " -> " + scc.components.get(c));
+                    System.out.println("  C" + c + " -> " + Arrays.toString(scc.membersOf(c)));
                 }
             }
         }
 
-        // 4b) Longest (critical) path from srcComp
+        // 4c) Longest (critical) path from srcComp
         if (longestDst != null) {
             int dstComp = scc.compId[Math.max(0, Math.min(longestDst, g.n - 1))];
             DagLongestPath lp = new DagLongestPath();
-            DagLongestPath.Result cres = lp.longest(dag, srcComp, topo);
+            DagLongestPath.Result cres = lp.longest(weighted.max, srcComp, topo);
             int[] path = DagLongestPath.reconstructPath(srcComp, dstComp, cres.parent);
             int length = (path.length == 0) ? DagLongestPath.NEG_INF : cres.best[dstComp];
             System.out.println("[DAG longest] best (by component): " + Arrays.toString(cres.best));
@@ -141,12 +198,91 @@ public final class MainDagSP {
             if (path.length > 0) {
                 System.out.println("[DAG longest] expanded SCCs (per component in path):");
                 for (int c : path) {
-                    System.out.println("  C" + c + " -> " + scc.components.get(c));
+                    System.out.println("  C" + c + " -> " + Arrays.toString(scc.membersOf(c)));
+                }
+            }
+        }
+
+        // 4d) Critical path method over the whole condensation DAG
+        if (cpm) {
+            m.reset();
+            m.start();
+            CriticalPath.Result res = new CriticalPath().analyze(weighted.max, topo, m);
+            m.stop();
+            System.out.println("[CPM] project length=" + res.length
+                    + " critical components=" + res.criticalVertices.length + "/" + dag.n
+                    + " critical edges=" + res.criticalEdges.length
+                    + " relaxations=" + m.getRelaxations()
+                    + " time(ns)=" + m.elapsedNanos());
+            System.out.println("[CPM] earliest start (by component): " + Arrays.toString(res.earliest));
+            System.out.println("[CPM] latest start (by component): " + Arrays.toString(res.latest));
+            System.out.println("[CPM] slack (by component): " + Arrays.toString(res.slack));
+            System.out.println("[CPM] critical components: " + Arrays.toString(res.criticalVertices));
+            StringBuilder edges = new StringBuilder("[");
+            for (int i = 0; i < res.criticalEdges.length; i++) {
+                int e = res.criticalEdges[i];
+                if (i > 0)
+                    edges.append(", ");
+                edges.append(CriticalPath.edgeSource(weighted.max, e)).append("->").append(weighted.max.targets[e]);
+            }
+            System.out.println("[CPM] critical edges: " + edges.append(']'));
+        }
+
+        // 4e) Batched shortest paths from many sources
+        if (sourcesArg != null) {
+            DagShortestPaths sp = new DagShortestPaths();
+            m.reset();
+            if ("all".equals(sourcesArg)) {
+                int[] comps = new int[dag.n];
+                for (int c = 0; c < dag.n; c++)
+                    comps[c] = c;
+                LongAdder reachable = new LongAdder();
+                LongAccumulator diameter = new LongAccumulator(Math::max, 0);
+                m.start();
+                sp.shortestBlocks(dag.csr(), comps, topo, DagShortestPaths.DEFAULT_BLOCK, ForkJoinPool.commonPool(),
+                        (lanes, dist) -> {
+                            long r = 0;
+                            int far = 0;
+                            for (int d : dist) {
+                                if (d != DagShortestPaths.INF) {
+                                    r++;
+                                    far = Math.max(far, d);
+                                }
+                            }
+                            reachable.add(r);
+                            diameter.accumulate(far);
+                        }, m);
+                m.stop();
+                System.out.println("[DAG-SP multi] sources=" + comps.length
+                        + " reachablePairs=" + reachable.sum()
+                        + " maxDistance=" + diameter.get()
+                        + " relaxations=" + m.getRelaxations()
+                        + " time(ns)=" + m.elapsedNanos());
+            } else {
+                String[] parts = sourcesArg.split(",");
+                int[] comps = new int[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    int v = Integer.parseInt(parts[i].trim());
+                    if (v < 0 || v >= g.n) {
+                        System.err.println("Invalid source in --sources: " + v);
+                        System.exit(2);
+                    }
+                    comps[i] = scc.compId[v];
+                }
+                m.start();
+                DagShortestPaths.MultiResult multi = sp.shortestMany(dag, comps, topo, m);
+                m.stop();
+                System.out.println("[DAG-SP multi] sources=" + comps.length
+                        + " relaxations=" + m.getRelaxations()
+                        + " time(ns)=" + m.elapsedNanos());
+                for (int i = 0; i < parts.length; i++) {
+                    System.out.println("  src=" + parts[i].trim() + " -> component=" + comps[i]
+                            + " dist (by component): " + Arrays.toString(multi.dist[i]));
                 }
             }
         }
 
-        if (shortestDst == null && longestDst == null) {
+        if (shortestDst == null && longestDst == null && sourcesArg == null && !cpm) {
             System.out.println("(Hint) Add --shortest <dst> or --longest <dst> to compute paths.");
         }
     }
@@ -0,0 +1,144 @@
+package graph.dagsp;
+
+import common.metrics.Metrics;
+import graph.model.CsrGraph;
+
+import java.util.Arrays;
+
+/**
+ * Point-to-point shortest paths on a DAG. A query src -> dst only relaxes the
+ * cone of vertices that are reachable from src and co-reachable to dst: a
+ * forward mark from src that never passes dst's topological rank, then a
+ * backward mark from dst over the transposed DAG restricted to the forward
+ * set. The cone is relaxed in rank order, so the work is proportional to the
+ * cone rather than to the DAG. Scratch arrays are stamped with a per-query
+ * epoch and never cleared; the transpose and ranks are built once. Not
+ * thread-safe: use one instance per thread.
+ */
+public final class PointToPointPaths {
+
+    public static final class Result {
+        public final int dist; // DagShortestPaths.INF if dst is unreachable
+        public final int[] path; // [src .. dst], empty if unreachable
+        public final int touched; // vertices marked by the forward search
+
+        public Result(int dist, int[] path, int touched) {
+            this.dist = dist;
+            this.path = path;
+            this.touched = touched;
+        }
+    }
+
+    private final CsrGraph dag;
+    private final CsrGraph rev;
+    private final int[] order; // vertex at each topological rank
+    private final int[] rank;
+
+    // per-query scratch, valid where the stamp equals the current epoch
+    private final int[] fwdStamp, coneStamp;
+    private final int[] dist, parent;
+    private int[] stack, cone;
+    private int epoch;
+
+    public PointToPointPaths(CsrGraph dag, int[] topo) {
+        int n = dag.n;
+        if (topo.length != n)
+            throw new IllegalArgumentException("Topological order must cover all " + n + " vertices");
+        this.dag = dag;
+        this.rev = dag.reverse();
+        this.order = topo;
+        this.rank = new int[n];
+        for (int i = 0; i < n; i++)
+            rank[topo[i]] = i;
+        this.fwdStamp = new int[n];
+        this.coneStamp = new int[n];
+        this.dist = new int[n];
+        this.parent = new int[n];
+        this.stack = new int[16];
+        this.cone = new int[16];
+    }
+
+    public Result shortest(int src, int dst, Metrics m) {
+        if (src < 0 || src >= dag.n || dst < 0 || dst >= dag.n)
+            throw new IllegalArgumentException("Vertex out of range: " + src + " -> " + dst);
+        if (src == dst)
+            return new Result(0, new int[] { src }, 1);
+        int limit = rank[dst];
+        if (rank[src] > limit)
+            return new Result(DagShortestPaths.INF, new int[0], 0);
+        nextEpoch();
+
+        // forward: reachable from src without passing dst's rank
+        int touched = 0, sp = 0;
+        fwdStamp[src] = epoch;
+        stack[sp++] = src;
+        while (sp > 0) {
+            int u = stack[--sp];
+            touched++;
+            for (int i = dag.offsets[u]; i < dag.offsets[u + 1]; i++) {
+                int v = dag.targets[i];
+                if (fwdStamp[v] != epoch && rank[v] <= limit) {
+                    fwdStamp[v] = epoch;
+                    stack = push(stack, sp++, v);
+                }
+            }
+        }
+        m.addDfsVisits(touched);
+        if (fwdStamp[dst] != epoch)
+            return new Result(DagShortestPaths.INF, new int[0], touched);
+
+        // backward: the forward set that can still reach dst; collect ranks for ordering
+        int k = 0;
+        coneStamp[dst] = epoch;
+        stack[sp++] = dst;
+        while (sp > 0) {
+            int v = stack[--sp];
+            cone = push(cone, k++, rank[v]);
+            dist[v] = DagShortestPaths.INF;
+            parent[v] = -1;
+            for (int i = rev.offsets[v]; i < rev.offsets[v + 1]; i++) {
+                int u = rev.targets[i];
+                if (fwdStamp[u] == epoch && coneStamp[u] != epoch) {
+                    coneStamp[u] = epoch;
+                    stack = push(stack, sp++, u);
+                }
+            }
+        }
+
+        // relax the cone in topological order; dst has the highest rank, so it is last
+        Arrays.sort(cone, 0, k);
+        dist[src] = 0;
+        for (int j = 0; j < k; j++) {
+            int u = order[cone[j]];
+            if (dist[u] == DagShortestPaths.INF || u == dst)
+                continue;
+            for (int i = dag.offsets[u]; i < dag.offsets[u + 1]; i++) {
+                int v = dag.targets[i];
+                if (coneStamp[v] != epoch)
+                    continue;
+                int cand = dist[u] + dag.weights[i];
+                if (cand < dist[v]) {
+                    dist[v] = cand;
+                    parent[v] = u;
+                    m.incRelaxations();
+                }
+            }
+        }
+        return new Result(dist[dst], DagShortestPaths.reconstructPath(src, dst, parent), touched);
+    }
+
+    private void nextEpoch() {
+        if (++epoch == 0) { // wrapped: stale stamps could collide, so start over
+            Arrays.fill(fwdStamp, 0);
+            Arrays.fill(coneStamp, 0);
+            epoch = 1;
+        }
+    }
+
+    private static int[] push(int[] a, int at, int v) {
+        if (at == a.length)
+            a = Arrays.copyOf(a, a.length * 2);
+        a[at] = v;
+        return a;
+    }
+}
@@ -0,0 +1,233 @@
+package graph.gen;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import common.io.EdgeFile;
+import common.metrics.NoOpMetrics;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Seeded, deterministic generator for the same graph families as
+ * generate_datasets.py, sized for 10^6..10^8 edges.
+ * A random topological order gets a chain backbone plus extra forward edges
+ * (the density level); planted SCCs are cycles over disjoint windows of 3-5
+ * consecutive positions in that order, so the graph has exactly the requested
+ * number of non-trivial SCCs. Edges are emitted to a sink, so they can go to a
+ * CSR builder or straight to JSON without being held in memory. Multi-edges
+ * are possible (rare on sparse graphs); the script deduplicates, we do not.
+ */
+public final class GraphGenerator {
+
+    /** Python's edge probability, and the average extra out-degree it is capped at for large n. */
+    public enum Density {
+        SPARSE(0.10, 2), MEDIUM(0.20, 4), DENSE(0.35, 8);
+
+        public final double p;
+        public final int maxDegree;
+
+        Density(double p, int maxDegree) {
+            this.p = p;
+            this.maxDegree = maxDegree;
+        }
+    }
+
+    public interface EdgeSink {
+        void edge(int u, int v, int w);
+    }
+
+    private final long seed;
+    private int n = 10;
+    private Density density = Density.SPARSE;
+    private long extraEdges = -1; // -1 = derive from density
+    private int sccs;
+    private int minWeight = 1, maxWeight = 9;
+
+    public GraphGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public GraphGenerator vertices(int n) {
+        if (n < 1)
+            throw new IllegalArgumentException("n must be positive");
+        this.n = n;
+        return this;
+    }
+
+    public GraphGenerator density(Density density) {
+        this.density = density;
+        this.extraEdges = -1;
+        return this;
+    }
+
+    /** Exact number of forward edges on top of the chain backbone; overrides density. */
+    public GraphGenerator extraEdges(long count) {
+        this.extraEdges = count;
+        return this;
+    }
+
+    /** Number of planted SCCs (cycles of 3-5 vertices); at most n / 3. */
+    public GraphGenerator plantedSccs(int count) {
+        this.sccs = count;
+        return this;
+    }
+
+    public GraphGenerator weights(int min, int max) {
+        if (min > max)
+            throw new IllegalArgumentException("min weight > max weight");
+        this.minWeight = min;
+        this.maxWeight = max;
+        return this;
+    }
+
+    public long extraEdgeCount() {
+        if (extraEdges >= 0)
+            return extraEdges;
+        double pairs = (double) n * (n - 1) / 2;
+        return (long) Math.min(density.p * pairs, (double) n * density.maxDegree);
+    }
+
+    /** Exact number of planted SCCs after clamping to what fits in n. */
+    public int sccCount() {
+        return Math.min(sccs, n / 3);
+    }
+
+    /** Upper bound on emitted edges, for sizing buffers. */
+    public long edgeCountEstimate() {
+        return (n - 1) + extraEdgeCount() + 6L * sccCount();
+    }
+
+    /**
+     * The script picks a random zero-indegree vertex, or any random vertex if
+     * there is none. In a pure DAG the chain backbone leaves the first vertex
+     * of the order as the only zero-indegree vertex, so that is returned. With
+     * planted cycles a random vertex is returned without an in-degree scan, so
+     * this can differ from the script's pick when the first vertex stays
+     * outside every cycle.
+     */
+    public int source() {
+        int[] order = order(new SplittableRandom(seed));
+        return sccCount() == 0 ? order[0] : order[new SplittableRandom(seed ^ 0x5DEECE66DL).nextInt(n)];
+    }
+
+    public void forEachEdge(EdgeSink sink) {
+        SplittableRandom r = new SplittableRandom(seed);
+        int[] order = order(r);
+
+        for (int i = 0; i + 1 < n; i++)
+            sink.edge(order[i], order[i + 1], weight(r));
+
+        long extra = n < 2 ? 0 : extraEdgeCount();
+        for (long k = 0; k < extra; k++) {
+            int a = r.nextInt(n), b = r.nextInt(n - 1);
+            if (b >= a)
+                b++;
+            int lo = Math.min(a, b), hi = Math.max(a, b);
+            sink.edge(order[lo], order[hi], weight(r));
+        }
+
+        int k = sccCount();
+        if (k == 0)
+            return;
+        int slot = n / k;
+        int[] window = new int[5];
+        for (int c = 0; c < k; c++) {
+            int size = Math.min(slot, 3 + r.nextInt(3));
+            int start = c * slot + r.nextInt(slot - size + 1);
+            for (int i = 0; i < size; i++)
+                window[i] = order[start + i];
+            for (int i = size - 1; i > 0; i--) {
+                int j = r.nextInt(i + 1);
+                int t = window[i];
+                window[i] = window[j];
+                window[j] = t;
+            }
+            for (int i = 0; i < size; i++)
+                sink.edge(window[i], window[(i + 1) % size], weight(r));
+            if (size >= 4 && r.nextDouble() < 0.6) {
+                int a = r.nextInt(size), b = r.nextInt(size - 1);
+                if (b >= a)
+                    b++;
+                sink.edge(window[a], window[b], weight(r));
+            }
+        }
+    }
+
+    public CsrGraph generate() {
+        long estimate = edgeCountEstimate();
+        if (estimate > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("Too many edges for an int-indexed CSR graph: " + estimate);
+        CsrGraph.Builder b = new CsrGraph.Builder(n, (int) estimate).source(source());
+        forEachEdge(b::addEdge);
+        return b.build(ForkJoinPool.commonPool());
+    }
+
+    public Graph graph() {
+        return new Graph(generate());
+    }
+
+    /** Streams the graph to the dataset JSON format (compact, not pretty-printed). */
+    public void writeJson(Path path) {
+        try (JsonGenerator gen = new JsonFactory().createGenerator(path.toFile(), JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeBooleanField("directed", true);
+            gen.writeNumberField("n", n);
+            gen.writeArrayFieldStart("edges");
+            forEachEdge((u, v, w) -> {
+                try {
+                    gen.writeStartObject();
+                    gen.writeNumberField("u", u);
+                    gen.writeNumberField("v", v);
+                    gen.writeNumberField("w", w);
+                    gen.writeEndObject();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            gen.writeEndArray();
+            gen.writeNumberField("source", source());
+            gen.writeStringField("weight_model", "edge");
+            gen.writeEndObject();
+        } catch (IOException | RuntimeException e) {
+            throw new RuntimeException("Failed to write graph JSON: " + path, e);
+        }
+    }
+
+    /** Streams the graph to an {@link EdgeFile}; no edge count limit. */
+    public void writeEdges(Path path) {
+        try (EdgeFile.Writer w = new EdgeFile.Writer(path, n, NoOpMetrics.INSTANCE)) {
+            forEachEdge((u, v, wt) -> {
+                try {
+                    w.add(u, v, wt);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            throw new RuntimeException("Failed to write edge file: " + path, e);
+        }
+    }
+
+    private int[] order(SplittableRandom r) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++)
+            order[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = r.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return order;
+    }
+
+    private int weight(SplittableRandom r) {
+        return minWeight + r.nextInt(maxWeight - minWeight + 1);
+    }
+}
@@ -0,0 +1,86 @@
+package graph.gen;
+
+import common.io.BinaryGraphIO;
+import common.io.EdgeFile;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * CLI:
+ * java graph.gen.MainGenerate --n 1000000 --output data/big.json
+ * [--density sparse|medium|dense] [--extra-edges M] [--sccs K] [--seed S] [--wmin 1] [--wmax 9]
+ *
+ * JSON and .edges outputs are streamed edge by edge; a .bin output is built in memory first.
+ */
+public final class MainGenerate {
+
+    private static void usage() {
+        System.err.println("Usage: java graph.gen.MainGenerate --n N --output file.json|file.bin|file.edges"
+                + " [--density sparse|medium|dense] [--extra-edges M] [--sccs K] [--seed S] [--wmin W] [--wmax W]");
+    }
+
+    public static void main(String[] args) {
+        Integer n = null;
+        Path output = null;
+        String density = "sparse";
+        Long extra = null;
+        int sccs = 0, wmin = 1, wmax = 9;
+        long seed = 42L;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--n":
+                    n = Integer.parseInt(value);
+                    break;
+                case "--output":
+                    output = Path.of(value);
+                    break;
+                case "--density":
+                    density = value;
+                    break;
+                case "--extra-edges":
+                    extra = Long.parseLong(value);
+                    break;
+                case "--sccs":
+                    sccs = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--wmin":
+                    wmin = Integer.parseInt(value);
+                    break;
+                case "--wmax":
+                    wmax = Integer.parseInt(value);
+                    break;
+                default:
+                    usage();
+                    System.exit(1);
+            }
+        }
+        if (n == null || output == null || args.length % 2 != 0) {
+            usage();
+            System.exit(1);
+        }
+
+        GraphGenerator gen = new GraphGenerator(seed)
+                .vertices(n)
+                .density(GraphGenerator.Density.valueOf(density.toUpperCase(Locale.ROOT)))
+                .plantedSccs(sccs)
+                .weights(wmin, wmax);
+        if (extra != null)
+            gen.extraEdges(extra);
+
+        long t0 = System.nanoTime();
+        if (BinaryGraphIO.isBinary(output))
+            BinaryGraphIO.write(gen.generate(), output);
+        else if (EdgeFile.isEdgeFile(output))
+            gen.writeEdges(output);
+        else
+            gen.writeJson(output);
+        System.out.println("n=" + n + " edges<=" + gen.edgeCountEstimate() + " sccs=" + gen.sccCount()
+                + " source=" + gen.source() + " time(ns)=" + (System.nanoTime() - t0) + " -> " + output);
+    }
+}
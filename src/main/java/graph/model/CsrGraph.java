@@ -0,0 +1,317 @@
+package graph.model;
+
+import common.concurrent.ParallelFor;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Immutable compressed-sparse-row graph: the outgoing edges of u are
+ * targets[offsets[u] .. offsets[u + 1]) with matching weights.
+ * Build once through {@link Builder}; traversal allocates nothing.
+ */
+public final class CsrGraph {
+    public final int n;
+    public final boolean directed;
+    public final Integer source;
+    public final int[] offsets; // length n + 1
+    public final int[] targets; // length m
+    public final int[] weights; // length m
+
+    private volatile CsrGraph reversed; // cached transpose, shared by every caller
+
+    public CsrGraph(int n, boolean directed, Integer source, int[] offsets, int[] targets, int[] weights) {
+        if (offsets.length != n + 1 || targets.length != weights.length || offsets[n] != targets.length)
+            throw new IllegalArgumentException("Inconsistent CSR arrays");
+        this.n = n;
+        this.directed = directed;
+        this.source = source;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public int outDegree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+
+    /**
+     * Transposed graph (every u -> v becomes v -> u): the in-edges of v are
+     * reverse().targets[offsets[v] .. offsets[v + 1]). Built in one counting
+     * pass on first use and cached, so every algorithm that needs predecessors
+     * shares one copy; the transpose's own reverse() is this graph.
+     */
+    public CsrGraph reverse() {
+        CsrGraph r = reversed;
+        if (r == null) {
+            synchronized (this) {
+                r = reversed;
+                if (r == null) {
+                    r = transpose();
+                    r.reversed = this;
+                    reversed = r;
+                }
+            }
+        }
+        return r;
+    }
+
+    public int inDegree(int v) {
+        return reverse().outDegree(v);
+    }
+
+    private CsrGraph transpose() {
+        int m = targets.length;
+        int[] rOffsets = new int[n + 1];
+        for (int i = 0; i < m; i++)
+            rOffsets[targets[i] + 1]++;
+        for (int v = 0; v < n; v++)
+            rOffsets[v + 1] += rOffsets[v];
+        int[] cursor = Arrays.copyOf(rOffsets, n);
+        int[] rTargets = new int[m];
+        int[] rWeights = new int[m];
+        for (int u = 0; u < n; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int pos = cursor[targets[i]]++;
+                rTargets[pos] = u;
+                rWeights[pos] = weights[i];
+            }
+        }
+        return new CsrGraph(n, directed, source, rOffsets, rTargets, rWeights);
+    }
+
+    /** Approximate heap footprint of the three arrays, in bytes. */
+    public long sizeInBytes() {
+        return 4L * (offsets.length + targets.length + weights.length);
+    }
+
+    /**
+     * Mutable edge accumulator. Edges are kept as three parallel int arrays and
+     * laid out by a stable counting sort on build, so adjacency order equals
+     * insertion order unless {@link #sortTargets} is set.
+     * {@link #build(ForkJoinPool)} runs the same sort in parallel and produces
+     * the identical layout.
+     */
+    public static final class Builder {
+        private static final int PARALLEL_MIN_EDGES = 1 << 16;
+        private static final int GRAIN = 4096;
+
+        private int n;
+        private boolean directed = true;
+        private Integer source;
+        private boolean sortTargets;
+        private int m;
+        private int[] us, vs, ws;
+
+        public Builder() {
+            this(0, 16);
+        }
+
+        public Builder(int n) {
+            this(n, 16);
+        }
+
+        public Builder(int n, int expectedEdges) {
+            this.n = n;
+            int cap = Math.max(expectedEdges, 1);
+            us = new int[cap];
+            vs = new int[cap];
+            ws = new int[cap];
+        }
+
+        public Builder vertices(int n) {
+            this.n = n;
+            return this;
+        }
+
+        public Builder directed(boolean directed) {
+            this.directed = directed;
+            return this;
+        }
+
+        public Builder source(Integer source) {
+            this.source = source;
+            return this;
+        }
+
+        /** Orders each adjacency by (target, weight) instead of insertion order, for sequential scans of neighbours. */
+        public Builder sortTargets(boolean sortTargets) {
+            this.sortTargets = sortTargets;
+            return this;
+        }
+
+        public int vertexCount() {
+            return n;
+        }
+
+        public int edgeCount() {
+            return m;
+        }
+
+        public Builder addEdge(int u, int v, int w) {
+            if (m == us.length)
+                grow(m + 1);
+            us[m] = u;
+            vs[m] = v;
+            ws[m] = w;
+            m++;
+            return this;
+        }
+
+        /** Appends edges us[from + i] -> vs[from + i] with weight ws[from + i], i < len, by array copy. */
+        public Builder addEdges(int[] us, int[] vs, int[] ws, int from, int len) {
+            if (m + len > this.us.length)
+                grow(m + len);
+            System.arraycopy(us, from, this.us, m, len);
+            System.arraycopy(vs, from, this.vs, m, len);
+            System.arraycopy(ws, from, this.ws, m, len);
+            m += len;
+            return this;
+        }
+
+        private void grow(int min) {
+            int cap = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(min, us.length + (us.length >> 1) + 1L));
+            if (cap < min)
+                throw new IllegalStateException("Too many edges for an int-indexed CSR graph: " + min);
+            us = Arrays.copyOf(us, cap);
+            vs = Arrays.copyOf(vs, cap);
+            ws = Arrays.copyOf(ws, cap);
+        }
+
+        /** Appends every edge of an existing CSR graph, in adjacency order. */
+        public Builder addAll(CsrGraph g) {
+            for (int u = 0; u < g.n; u++) {
+                for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++)
+                    addEdge(u, g.targets[i], g.weights[i]);
+            }
+            return this;
+        }
+
+        /** Builds the CSR layout; the builder stays usable afterwards. */
+        public CsrGraph build() {
+            int[] offsets = new int[n + 1];
+            for (int i = 0; i < m; i++) {
+                int u = us[i];
+                if (u < 0 || u >= n || vs[i] < 0 || vs[i] >= n)
+                    throw new IllegalArgumentException("Edge " + u + "->" + vs[i] + " out of range for n=" + n);
+                offsets[u + 1]++;
+            }
+            for (int u = 0; u < n; u++)
+                offsets[u + 1] += offsets[u];
+
+            int[] cursor = Arrays.copyOf(offsets, n);
+            int[] targets = new int[m];
+            int[] weights = new int[m];
+            for (int i = 0; i < m; i++) {
+                int pos = cursor[us[i]]++;
+                targets[pos] = vs[i];
+                weights[pos] = ws[i];
+            }
+            if (sortTargets)
+                sortAdjacency(offsets, targets, weights, 0, n);
+            return new CsrGraph(n, directed, source, offsets, targets, weights);
+        }
+
+        /**
+         * Parallel {@link #build()}: the edges are cut into chunks, each chunk
+         * counts its sources into a private histogram, a parallel prefix sum
+         * over the degrees gives the offsets, and each chunk scatters its edges
+         * behind those of earlier chunks, so the result is the same stable
+         * layout. Histograms cost 4 * n bytes per chunk, so the chunk count is
+         * capped at 2m / n; small or very sparse batches fall back to build().
+         */
+        public CsrGraph build(ForkJoinPool pool) {
+            int n = this.n, m = this.m;
+            int chunks = (int) Math.min(pool.getParallelism(), 2L * m / (n + 1));
+            if (m < PARALLEL_MIN_EDGES || chunks < 2)
+                return build();
+            int[] us = this.us, vs = this.vs, ws = this.ws;
+            int size = (m + chunks - 1) / chunks;
+
+            int[][] cursor = new int[chunks][];
+            pool.invoke(new ParallelFor(0, chunks, 1, (lo, hi) -> {
+                for (int c = lo; c < hi; c++) {
+                    int[] count = new int[n];
+                    for (int i = c * size, end = Math.min(m, i + size); i < end; i++) {
+                        int u = us[i];
+                        if (u < 0 || u >= n || vs[i] < 0 || vs[i] >= n)
+                            throw new IllegalArgumentException("Edge " + u + "->" + vs[i] + " out of range for n=" + n);
+                        count[u]++;
+                    }
+                    cursor[c] = count;
+                }
+            }));
+
+            // turn each chunk's counts into its start within the vertex's adjacency
+            int[] offsets = new int[n + 1];
+            pool.invoke(new ParallelFor(0, n, GRAIN, (lo, hi) -> {
+                for (int u = lo; u < hi; u++) {
+                    int degree = 0;
+                    for (int c = 0; c < chunks; c++) {
+                        int count = cursor[c][u];
+                        cursor[c][u] = degree;
+                        degree += count;
+                    }
+                    offsets[u + 1] = degree;
+                }
+            }));
+            pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelPrefix(offsets, Integer::sum)));
+
+            int[] targets = new int[m];
+            int[] weights = new int[m];
+            pool.invoke(new ParallelFor(0, chunks, 1, (lo, hi) -> {
+                for (int c = lo; c < hi; c++) {
+                    int[] next = cursor[c];
+                    for (int i = c * size, end = Math.min(m, i + size); i < end; i++) {
+                        int u = us[i];
+                        int pos = offsets[u] + next[u]++;
+                        targets[pos] = vs[i];
+                        weights[pos] = ws[i];
+                    }
+                    cursor[c] = null;
+                }
+            }));
+            if (sortTargets)
+                pool.invoke(new ParallelFor(0, n, GRAIN,
+                        (lo, hi) -> sortAdjacency(offsets, targets, weights, lo, hi)));
+            return new CsrGraph(n, directed, source, offsets, targets, weights);
+        }
+
+        /** Sorts the adjacency of every u in [lo, hi) by (target, weight). */
+        private static void sortAdjacency(int[] offsets, int[] targets, int[] weights, int lo, int hi) {
+            long[] keys = null;
+            for (int u = lo; u < hi; u++) {
+                int from = offsets[u], to = offsets[u + 1];
+                if (to - from <= 32) {
+                    for (int i = from + 1; i < to; i++) {
+                        int t = targets[i], w = weights[i];
+                        int j = i;
+                        for (; j > from && (targets[j - 1] > t || targets[j - 1] == t && weights[j - 1] > w); j--) {
+                            targets[j] = targets[j - 1];
+                            weights[j] = weights[j - 1];
+                        }
+                        targets[j] = t;
+                        weights[j] = w;
+                    }
+                    continue;
+                }
+                // targets are non-negative, and flipping the weight's sign bit keeps its order unsigned
+                int len = to - from;
+                if (keys == null || keys.length < len)
+                    keys = new long[len];
+                for (int i = 0; i < len; i++)
+                    keys[i] = ((long) targets[from + i] << 32) | ((weights[from + i] ^ Integer.MIN_VALUE) & 0xffffffffL);
+                Arrays.sort(keys, 0, len);
+                for (int i = 0; i < len; i++) {
+                    targets[from + i] = (int) (keys[i] >>> 32);
+                    weights[from + i] = (int) keys[i] ^ Integer.MIN_VALUE;
+                }
+            }
+        }
+    }
+}
@@ -1,21 +1,36 @@
 package graph.model;
 
+import common.io.BinaryGraphIO;
 import common.io.JsonLoader;
 
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.List;
 
 /**
- * Directed adjacency-list graph. We keep it simple and explicit.
+ * Directed weighted graph. Edges are stored in primitive arrays and frozen into
+ * a {@link CsrGraph} on first traversal. {@link #adj} is a read-only
+ * {@link Edge} view kept for callers that want objects, and {@link #inAdj}
+ * the same view of predecessors over the cached {@link #reverse()}.
+ *
+ * Edges added after a freeze go to an append-only delta; each costs O(1) and
+ * the frozen arrays are not copied. The next traversal merges base and delta
+ * in one O(n + m) pass. Interleaving single insertions with vertex-level
+ * reads pays that merge once per read, so incremental callers should read
+ * their own structures between insertions.
  */
 public class Graph {
     public final int n;
-    public final List<List<Edge>> adj; // adj[u] = list of outgoing edges from u
+    public final List<List<Edge>> adj; // adj[u] = outgoing edges from u (view, allocates on access)
+    public final List<List<Edge>> inAdj; // inAdj[v] = incoming edges u -> v (view over the cached transpose)
     public final boolean directed;
 
     public final Integer source;
 
+    private CsrGraph.Builder pending; // delta: edges added since the last freeze, or null
+    private CsrGraph csr; // frozen base
+    private long version; // bumped by every mutation, for caches keyed on graph state
+
     public Graph(int n, boolean directed) {
         this(n, directed, null);
     }
@@ -24,17 +39,163 @@ public class Graph {
         this.n = n;
         this.directed = directed;
         this.source = source;
-        this.adj = new ArrayList<>(n);
-        for (int i = 0; i < n; i++)
-            adj.add(new ArrayList<>());
+        this.csr = new CsrGraph.Builder(n).directed(directed).source(source).build();
+        this.adj = new AdjacencyView(false);
+        this.inAdj = new AdjacencyView(true);
+    }
+
+    /** Wraps an already built CSR graph without copying it. */
+    public Graph(CsrGraph csr) {
+        this.n = csr.n;
+        this.directed = csr.directed;
+        this.source = csr.source;
+        this.csr = csr;
+        this.adj = new AdjacencyView(false);
+        this.inAdj = new AdjacencyView(true);
+    }
+
+    public synchronized void addEdge(int u, int v, int w) {
+        if (u < 0 || u >= n || v < 0 || v >= n)
+            throw new IndexOutOfBoundsException("Edge " + u + "->" + v + " out of range for n=" + n);
+        delta(1).addEdge(u, v, w);
+        version++;
+    }
+
+    /** Adds edges us[i] -> vs[i] with weight ws[i]; the batch is validated before anything is added. */
+    public synchronized void addEdges(int[] us, int[] vs, int[] ws) {
+        if (us.length != vs.length || us.length != ws.length)
+            throw new IllegalArgumentException("Edge arrays differ in length");
+        for (int i = 0; i < us.length; i++) {
+            if (us[i] < 0 || us[i] >= n || vs[i] < 0 || vs[i] >= n)
+                throw new IndexOutOfBoundsException("Edge " + us[i] + "->" + vs[i] + " out of range for n=" + n);
+        }
+        if (us.length == 0)
+            return;
+        delta(us.length).addEdges(us, vs, ws, 0, us.length);
+        version += us.length;
+    }
+
+    /** Frozen CSR layout of the current edge set; rebuilt only after new edges. */
+    public synchronized CsrGraph csr() {
+        if (pending != null) {
+            csr = merge(csr, pending.build());
+            pending = null;
+        }
+        return csr;
+    }
+
+    private CsrGraph.Builder delta(int expectedEdges) {
+        if (pending == null)
+            pending = new CsrGraph.Builder(n, expectedEdges).directed(directed).source(source);
+        return pending;
+    }
+
+    /** Appends the delta's adjacency of every vertex after the base's, keeping insertion order. */
+    private static CsrGraph merge(CsrGraph base, CsrGraph delta) {
+        if (base.edgeCount() == 0)
+            return delta;
+        int n = base.n;
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++)
+            offsets[u + 1] = offsets[u] + base.outDegree(u) + delta.outDegree(u);
+        int m = offsets[n];
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        for (int u = 0; u < n; u++) {
+            int pos = offsets[u], b = base.outDegree(u), d = delta.outDegree(u);
+            System.arraycopy(base.targets, base.offsets[u], targets, pos, b);
+            System.arraycopy(base.weights, base.offsets[u], weights, pos, b);
+            System.arraycopy(delta.targets, delta.offsets[u], targets, pos + b, d);
+            System.arraycopy(delta.weights, delta.offsets[u], weights, pos + b, d);
+        }
+        return new CsrGraph(n, base.directed, base.source, offsets, targets, weights);
+    }
+
+    /** Incoming edges as a CSR graph; built once per frozen edge set and shared with every caller. */
+    public CsrGraph reverse() {
+        return csr().reverse();
+    }
+
+    /** Mutation counter: changes whenever an edge is added, so results computed at another version are stale. */
+    public synchronized long version() {
+        return version;
     }
 
-    public void addEdge(int u, int v, int w) {
-        adj.get(u).add(new Edge(u, v, w));
+    public synchronized int edgeCount() {
+        return csr.edgeCount() + (pending != null ? pending.edgeCount() : 0);
     }
 
     /** Convenience loader that reads our dataset JSON format. */
     public static Graph fromJson(Path path) {
         return JsonLoader.loadGraph(path);
     }
+
+    /** Picks the loader by extension: {@code .bin} is the binary CSR format, anything else JSON. */
+    public static Graph load(Path path) {
+        return BinaryGraphIO.isBinary(path) ? new Graph(BinaryGraphIO.read(path)) : fromJson(path);
+    }
+
+    private final class AdjacencyView extends AbstractList<List<Edge>> {
+        private final boolean incoming;
+
+        AdjacencyView(boolean incoming) {
+            this.incoming = incoming;
+        }
+
+        @Override
+        public List<Edge> get(int u) {
+            if (u < 0 || u >= n)
+                throw new IndexOutOfBoundsException(u);
+            return incoming ? new InEdges(u) : new OutEdges(u);
+        }
+
+        @Override
+        public int size() {
+            return n;
+        }
+    }
+
+    private final class OutEdges extends AbstractList<Edge> {
+        private final int u;
+
+        OutEdges(int u) {
+            this.u = u;
+        }
+
+        @Override
+        public Edge get(int i) {
+            CsrGraph c = csr();
+            if (i < 0 || i >= c.outDegree(u))
+                throw new IndexOutOfBoundsException(i);
+            int pos = c.offsets[u] + i;
+            return new Edge(u, c.targets[pos], c.weights[pos]);
+        }
+
+        @Override
+        public int size() {
+            return csr().outDegree(u);
+        }
+    }
+
+    private final class InEdges extends AbstractList<Edge> {
+        private final int v;
+
+        InEdges(int v) {
+            this.v = v;
+        }
+
+        @Override
+        public Edge get(int i) {
+            CsrGraph r = reverse();
+            if (i < 0 || i >= r.outDegree(v))
+                throw new IndexOutOfBoundsException(i);
+            int pos = r.offsets[v] + i;
+            return new Edge(r.targets[pos], v, r.weights[pos]);
+        }
+
+        @Override
+        public int size() {
+            return reverse().outDegree(v);
+        }
+    }
 }
@@ -1,31 +1,98 @@
 package graph.scc;
 
-import graph.model.Edge;
+import graph.model.CsrGraph;
 import graph.model.Graph;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
 
 /**
  * Builds condensation DAG: each SCC -> single node; edges between components.
+ * Parallel inter-component edges collapse to one, keeping the minimum weight
+ * (for shortest paths) and the maximum weight (for critical paths).
+ * Vertices are grouped by component with a counting sort, and duplicates
+ * within a component are found through a slot array indexed by target
+ * component, so no boxed keys or hash sets are involved.
  */
 public final class CondensationGraphBuilder {
 
+    /** The same condensation DAG twice, sharing offsets/targets; only the weights differ. */
+    public static final class Result {
+        public final CsrGraph min;
+        public final CsrGraph max;
+
+        public Result(CsrGraph min, CsrGraph max) {
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    /** Condensation with minimum inter-component weights. */
     public Graph build(Graph g, int compCount, int[] compId) {
-        Graph dag = new Graph(compCount, true);
-        Set<Long> seen = new HashSet<>();
-        for (int u = 0; u < g.n; u++) {
-            int cu = compId[u];
-            for (Edge e : g.adj.get(u)) {
-                int cv = compId[e.v];
-                if (cu == cv)
-                    continue;
-                long key = (((long) cu) << 32) ^ (cv & 0xffffffffL);
-                if (seen.add(key)) {
-                    dag.addEdge(cu, cv, 1);
+        return new Graph(build(g.csr(), compCount, compId));
+    }
+
+    /** Condensation with minimum inter-component weights. */
+    public CsrGraph build(CsrGraph g, int compCount, int[] compId) {
+        return buildWeighted(g, compCount, compId).min;
+    }
+
+    public Result buildWeighted(Graph g, int compCount, int[] compId) {
+        return buildWeighted(g.csr(), compCount, compId);
+    }
+
+    public Result buildWeighted(CsrGraph g, int compCount, int[] compId) {
+        // members of component c are byComp[start[c] .. start[c + 1]), ascending
+        int[] start = new int[compCount + 1];
+        for (int u = 0; u < g.n; u++)
+            start[compId[u] + 1]++;
+        for (int c = 0; c < compCount; c++)
+            start[c + 1] += start[c];
+        int[] byComp = new int[g.n];
+        int[] fill = Arrays.copyOf(start, compCount);
+        for (int u = 0; u < g.n; u++)
+            byComp[fill[compId[u]]++] = u;
+
+        // slot[cv] = output position of edge (cu, cv) while cu is being emitted
+        int[] slot = fill;
+        Arrays.fill(slot, -1);
+        int[] offsets = new int[compCount + 1];
+        int cap = Math.max(16, Math.min(g.edgeCount(), compCount));
+        int[] targets = new int[cap], minW = new int[cap], maxW = new int[cap];
+        int m = 0;
+        for (int cu = 0; cu < compCount; cu++) {
+            int first = m;
+            for (int k = start[cu]; k < start[cu + 1]; k++) {
+                int u = byComp[k];
+                for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                    int cv = compId[g.targets[i]];
+                    if (cv == cu)
+                        continue;
+                    int w = g.weights[i];
+                    int pos = slot[cv];
+                    if (pos >= first) {
+                        minW[pos] = Math.min(minW[pos], w);
+                        maxW[pos] = Math.max(maxW[pos], w);
+                        continue;
+                    }
+                    if (m == targets.length) {
+                        int grown = (int) Math.min(Integer.MAX_VALUE - 8, 2L * m);
+                        targets = Arrays.copyOf(targets, grown);
+                        minW = Arrays.copyOf(minW, grown);
+                        maxW = Arrays.copyOf(maxW, grown);
+                    }
+                    slot[cv] = m;
+                    targets[m] = cv;
+                    minW[m] = w;
+                    maxW[m] = w;
+                    m++;
                 }
             }
+            offsets[cu + 1] = m;
         }
-        return dag;
+
+        targets = Arrays.copyOf(targets, m);
+        CsrGraph min = new CsrGraph(compCount, true, null, offsets, targets, Arrays.copyOf(minW, m));
+        CsrGraph max = new CsrGraph(compCount, true, null, offsets, targets, Arrays.copyOf(maxW, m));
+        return new Result(min, max);
     }
 }
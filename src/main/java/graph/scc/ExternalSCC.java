@@ -0,0 +1,403 @@
+package graph.scc;
+
+import common.io.BinaryGraphIO;
+import common.io.EdgeFile;
+import common.io.ExternalPairSorter;
+import common.io.IntFile;
+import common.metrics.Metrics;
+import graph.model.CsrGraph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Semi-external SCC, condensation and topological order for graphs whose
+ * edges do not fit in heap. Vertex state (compId, colour, three bits) lives
+ * in arrays; edges stay in an {@link EdgeFile} and are only streamed.
+ *
+ * SCCs come from rounds of forward-backward colouring (Orzan): every live
+ * vertex takes the largest id that reaches it (forward passes until stable),
+ * each vertex whose colour is its own id is a root, and the root's SCC is the
+ * set of same-coloured vertices that reach it (backward passes). Each round
+ * rewrites the live edge file without assigned vertices and without edges
+ * between colours, which can never close a cycle again; vertices left with no
+ * live in- or out-edge are trimmed as singletons. Once the live edges fit the
+ * memory budget they are loaded and finished with {@link TarjanSCC}.
+ *
+ * The condensation is produced by an {@link ExternalPairSorter} over
+ * (compId[u], compId[v]) pairs, keeping min and max weights, and written as two
+ * {@link BinaryGraphIO} files; Kahn's algorithm then runs over the mapped
+ * targets section. compId plus the per-component offsets, indeg and order
+ * arrays (12 B per component) are charged to the budget first; half of the
+ * rest buffers pairs and half bounds the merge fan-in. Budgets too small for
+ * that still sort with {@link #MIN_SORT_PAIRS} pairs and a fan-in of 2.
+ *
+ * Output files in outDir: comp-ids.i32 (compId per vertex),
+ * condensation-min.bin, condensation-max.bin, topo.i32 (components in
+ * topological order). Bytes moved to and from disk are reported through the Metrics I/O counters.
+ */
+public final class ExternalSCC {
+
+    public static final String COMP_IDS = "comp-ids.i32";
+    public static final String MIN_DAG = "condensation-min.bin";
+    public static final String MAX_DAG = "condensation-max.bin";
+    public static final String TOPO = "topo.i32";
+
+    /** Heap per vertex: compId + colour ints, and the marked/hasIn/hasOut bits. */
+    static final double VERTEX_BYTES = 8 + 3 / 8.0;
+    /** Heap per live edge / live vertex when finishing in memory (builder + CSR + Tarjan). */
+    static final int IN_MEMORY_EDGE_BYTES = 20;
+    static final int IN_MEMORY_VERTEX_BYTES = 48;
+    /** Heap per buffered pair in the condensation sort. */
+    static final int SORT_PAIR_BYTES = 16;
+    /** Heap per component during condensation and topo: offsets, indeg, order. */
+    static final int COMPONENT_BYTES = 12;
+    static final int MIN_SORT_PAIRS = 1024;
+    static final int MAX_FAN_IN = 512;
+
+    public static final class Result {
+        public final int n;
+        public final int count; // number of components
+        public final int[] compId;
+        public final int[] topo; // components in topological order
+        public final int dagEdges;
+        public final int rounds; // colouring rounds before the in-memory finish
+        public final long passes; // full streams over an edge file
+        public final int sortRuns; // runs spilled by the condensation sort
+        public final int sortMergePasses; // intermediate merges forced by the fan-in limit
+
+        Result(int n, int count, int[] compId, int[] topo, int dagEdges, int rounds, long passes, int sortRuns,
+                int sortMergePasses) {
+            this.n = n;
+            this.count = count;
+            this.compId = compId;
+            this.topo = topo;
+            this.dagEdges = dagEdges;
+            this.rounds = rounds;
+            this.passes = passes;
+            this.sortRuns = sortRuns;
+            this.sortMergePasses = sortMergePasses;
+        }
+    }
+
+    private final Path workDir;
+    private final long memoryBytes;
+
+    /**
+     * @param workDir     scratch directory for live edge files and sort runs
+     * @param memoryBytes heap budget for vertex state plus buffered edges
+     */
+    public ExternalSCC(Path workDir, long memoryBytes) {
+        this.workDir = workDir;
+        this.memoryBytes = memoryBytes;
+    }
+
+    public Result run(Path edges, Path outDir, Metrics m) {
+        try {
+            return new Run(edges, m).run(outDir);
+        } catch (IOException e) {
+            throw new RuntimeException("External SCC failed on " + edges, e);
+        }
+    }
+
+    private final class Run {
+        final Path input;
+        final Metrics m;
+        final int n;
+        final long spare; // budget left after the vertex state
+        int[] compId, color;
+        long[] marked, hasIn, hasOut;
+        int next; // components assigned so far
+        int sortRuns, sortMergePasses;
+        int unassigned; // live vertices
+        int rounds;
+        long passes;
+
+        Run(Path input, Metrics m) throws IOException {
+            this.input = input;
+            this.m = m;
+            try (EdgeFile.Reader r = new EdgeFile.Reader(input, m)) {
+                this.n = r.n;
+            }
+            this.spare = memoryBytes - (long) Math.ceil(VERTEX_BYTES * n);
+            if (spare <= 0)
+                throw new IllegalArgumentException("Memory budget " + memoryBytes + " B is below the vertex state of "
+                        + (long) Math.ceil(VERTEX_BYTES * n) + " B for n=" + n);
+        }
+
+        Result run(Path outDir) throws IOException {
+            Files.createDirectories(outDir);
+            m.startPhase("scc");
+            scc();
+            m.stopPhase("scc");
+            color = null;
+            marked = hasIn = hasOut = null;
+            IntFile.write(outDir.resolve(COMP_IDS), compId, m);
+
+            m.startPhase("condensation");
+            int[] offsets = new int[next + 1];
+            Path targets = Files.createTempFile(workDir, "dag-targets", ".i32");
+            Path minW = Files.createTempFile(workDir, "dag-min", ".i32");
+            Path maxW = Files.createTempFile(workDir, "dag-max", ".i32");
+            try {
+                condense(offsets, targets, minW, maxW);
+                BinaryGraphIO.writeSections(outDir.resolve(MIN_DAG), next, offsets, targets, minW, m);
+                BinaryGraphIO.writeSections(outDir.resolve(MAX_DAG), next, offsets, targets, maxW, m);
+                m.stopPhase("condensation");
+
+                m.startPhase("topo");
+                int[] topo = kahn(offsets, targets);
+                IntFile.write(outDir.resolve(TOPO), topo, m);
+                m.stopPhase("topo");
+                return new Result(n, next, compId, topo, offsets[next], rounds, passes, sortRuns,
+                        sortMergePasses);
+            } finally {
+                Files.deleteIfExists(targets);
+                Files.deleteIfExists(minW);
+                Files.deleteIfExists(maxW);
+            }
+        }
+
+        void scc() throws IOException {
+            compId = new int[n];
+            Arrays.fill(compId, -1);
+            color = new int[n];
+            int words = (n + 63) >>> 6;
+            marked = new long[words];
+            hasIn = new long[words];
+            hasOut = new long[words];
+            unassigned = n;
+
+            Path live = input;
+            long liveEdges = scanDegrees(live);
+            try {
+                while (true) {
+                    trim();
+                    if (unassigned == 0)
+                        break;
+                    if (fitsInMemory(liveEdges)) {
+                        finishInMemory(live, liveEdges);
+                        break;
+                    }
+                    rounds++;
+                    colourRound(live);
+                    Path rewritten = Files.createTempFile(workDir, "live", EdgeFile.EXTENSION);
+                    liveEdges = rewrite(live, rewritten);
+                    if (live != input)
+                        Files.deleteIfExists(live);
+                    live = rewritten;
+                }
+            } finally {
+                if (live != input)
+                    Files.deleteIfExists(live);
+            }
+        }
+
+        boolean alive(int v) {
+            return compId[v] < 0;
+        }
+
+        /** Degree bits over edges between live vertices; returns their count. */
+        long scanDegrees(Path file) throws IOException {
+            Arrays.fill(hasIn, 0L);
+            Arrays.fill(hasOut, 0L);
+            long count = 0;
+            try (EdgeFile.Reader r = new EdgeFile.Reader(file, m)) {
+                passes++;
+                while (r.next()) {
+                    if (r.u != r.v && alive(r.u) && alive(r.v)) {
+                        set(hasOut, r.u);
+                        set(hasIn, r.v);
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+
+        /** Live vertices with no live in- or out-edge are singleton SCCs. */
+        void trim() {
+            for (int v = 0; v < n; v++) {
+                if (alive(v) && (!get(hasIn, v) || !get(hasOut, v))) {
+                    compId[v] = next++;
+                    unassigned--;
+                }
+            }
+        }
+
+        boolean fitsInMemory(long liveEdges) {
+            return liveEdges <= Integer.MAX_VALUE - 8
+                    && liveEdges * IN_MEMORY_EDGE_BYTES + (long) unassigned * IN_MEMORY_VERTEX_BYTES <= spare;
+        }
+
+        void colourRound(Path live) throws IOException {
+            for (int v = 0; v < n; v++)
+                color[v] = v;
+
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                try (EdgeFile.Reader r = new EdgeFile.Reader(live, m)) {
+                    passes++;
+                    while (r.next()) {
+                        int u = r.u, v = r.v;
+                        if (alive(u) && alive(v) && color[u] > color[v]) {
+                            color[v] = color[u];
+                            changed = true;
+                        }
+                    }
+                }
+            }
+
+            Arrays.fill(marked, 0L);
+            for (int v = 0; v < n; v++) {
+                if (alive(v) && color[v] == v)
+                    set(marked, v);
+            }
+            changed = true;
+            while (changed) {
+                changed = false;
+                try (EdgeFile.Reader r = new EdgeFile.Reader(live, m)) {
+                    passes++;
+                    while (r.next()) {
+                        int u = r.u, v = r.v;
+                        if (alive(u) && alive(v) && color[u] == color[v] && get(marked, v) && !get(marked, u)) {
+                            set(marked, u);
+                            changed = true;
+                        }
+                    }
+                }
+            }
+
+            for (int v = 0; v < n; v++) {
+                if (alive(v) && color[v] == v)
+                    compId[v] = next++;
+            }
+            for (int v = 0; v < n; v++) {
+                if (get(marked, v) && color[v] != v)
+                    compId[v] = compId[color[v]];
+                if (get(marked, v))
+                    unassigned--;
+            }
+        }
+
+        /** Copies edges that can still lie on a cycle; recomputes the degree bits. */
+        long rewrite(Path from, Path to) throws IOException {
+            Arrays.fill(hasIn, 0L);
+            Arrays.fill(hasOut, 0L);
+            try (EdgeFile.Reader r = new EdgeFile.Reader(from, m);
+                    EdgeFile.Writer w = new EdgeFile.Writer(to, n, m)) {
+                passes++;
+                while (r.next()) {
+                    int u = r.u, v = r.v;
+                    if (u != v && alive(u) && alive(v) && color[u] == color[v]) {
+                        w.add(u, v, r.w);
+                        set(hasOut, u);
+                        set(hasIn, v);
+                    }
+                }
+                return w.edgeCount();
+            }
+        }
+
+        /** Loads the live subgraph (renumbered densely through color[]) and runs Tarjan on it. */
+        void finishInMemory(Path live, long liveEdges) throws IOException {
+            int local = 0;
+            for (int v = 0; v < n; v++) {
+                if (alive(v))
+                    color[v] = local++;
+            }
+            CsrGraph.Builder b = new CsrGraph.Builder(local, (int) liveEdges);
+            try (EdgeFile.Reader r = new EdgeFile.Reader(live, m)) {
+                passes++;
+                while (r.next()) {
+                    if (r.u != r.v && alive(r.u) && alive(r.v))
+                        b.addEdge(color[r.u], color[r.v], r.w);
+                }
+            }
+            TarjanSCC.Result res = new TarjanSCC().compute(b.build(), m);
+            for (int v = 0; v < n; v++) {
+                if (alive(v))
+                    compId[v] = next + res.compId[color[v]];
+            }
+            next += res.count();
+            unassigned = 0;
+        }
+
+        /** Streams the input once into the pair sorter; writes CSR sections and fills offsets. */
+        void condense(int[] offsets, Path targets, Path minW, Path maxW) throws IOException {
+            long budget = memoryBytes - 4L * n - (long) COMPONENT_BYTES * next;
+            int capacity = (int) Math.max(MIN_SORT_PAIRS, Math.min(budget / 2 / SORT_PAIR_BYTES, 1 << 28));
+            int fanIn = (int) Math.max(2, Math.min(budget / 2 / ExternalPairSorter.RUN_BUFFER_BYTES, MAX_FAN_IN));
+            try (ExternalPairSorter sorter = new ExternalPairSorter(workDir, capacity, fanIn, m)) {
+                try (EdgeFile.Reader r = new EdgeFile.Reader(input, m)) {
+                    passes++;
+                    while (r.next()) {
+                        int cu = compId[r.u], cv = compId[r.v];
+                        if (cu != cv)
+                            sorter.add(cu, cv, r.w);
+                    }
+                }
+                try (IntFile.Writer t = new IntFile.Writer(targets, m);
+                        IntFile.Writer lo = new IntFile.Writer(minW, m);
+                        IntFile.Writer hi = new IntFile.Writer(maxW, m)) {
+                    sorter.finish((cu, cv, min, max) -> {
+                        if (t.count() == Integer.MAX_VALUE)
+                            throw new IOException("Condensation has more than 2^31-1 edges");
+                        offsets[cu + 1]++;
+                        t.add(cv);
+                        lo.add(min);
+                        hi.add(max);
+                    });
+                }
+                for (int c = 0; c < next; c++)
+                    offsets[c + 1] += offsets[c];
+                sortRuns = sorter.runs();
+                sortMergePasses = sorter.mergePasses();
+            }
+        }
+
+        /** Kahn over the on-disk targets section; indeg and the order are the only heap arrays. */
+        int[] kahn(int[] offsets, Path targets) throws IOException {
+            int k = next;
+            int[] indeg = new int[k];
+            int[] order = new int[k];
+            try (IntFile.Mapped t = new IntFile.Mapped(targets)) {
+                for (long i = 0; i < t.length(); i++)
+                    indeg[t.get(i)]++;
+                int head = 0, tail = 0;
+                for (int c = 0; c < k; c++) {
+                    if (indeg[c] == 0) {
+                        order[tail++] = c;
+                        m.incKahnPushes();
+                    }
+                }
+                while (head < tail) {
+                    int u = order[head++];
+                    m.incKahnPops();
+                    for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                        int v = t.get(i);
+                        if (--indeg[v] == 0) {
+                            order[tail++] = v;
+                            m.incKahnPushes();
+                        }
+                    }
+                }
+                m.addBytesRead(8L * t.length());
+                if (tail != k)
+                    throw new IllegalStateException("Condensation graph not a DAG (should not happen)");
+            }
+            return order;
+        }
+    }
+
+    private static void set(long[] bits, int v) {
+        bits[v >>> 6] |= 1L << v;
+    }
+
+    private static boolean get(long[] bits, int v) {
+        return (bits[v >>> 6] & (1L << v)) != 0;
+    }
+}
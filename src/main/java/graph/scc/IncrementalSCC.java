@@ -0,0 +1,390 @@
+package graph.scc;
+
+import common.metrics.Metrics;
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+
+import java.util.Arrays;
+
+/**
+ * SCCs and condensation DAG of a {@link Graph} kept up to date under edge
+ * insertions (Pearce-Kelly dynamic topological order over components).
+ * Components carry an order ord; an edge that agrees with it costs O(1). An
+ * edge cu -> cv against it searches forward from cv among components ordered
+ * at most ord[cu] and backward from cu among those at least ord[cv]. If the
+ * searches meet, their intersection merges into one component (smaller
+ * member lists relabelled into the largest); the visited components are then
+ * reordered within their own ord slots. Work is bounded by the region between
+ * the two endpoints, and is reported as dfsVisits (components) and
+ * dfsEdgeScans (component edges).
+ * Component ids are stable until merged; {@link #snapshot()} and
+ * {@link #condensation()} export dense ids numbered in topological order.
+ * Insertions are also appended to the vertex-level {@link Graph} in O(1), but
+ * neither export reads it, so it is only re-frozen (O(n + m)) when a caller
+ * traverses {@link #graph()} itself.
+ */
+public final class IncrementalSCC {
+
+    private final Graph graph;
+    private final int[] comp; // vertex -> live component id
+    private final int[] alias; // union-find over component ids; alias[c] == c for live ones
+    private final int[] ord;
+    private final int[][] members;
+    private final int[] size;
+    private final int[][] out, outW, in; // component edges, may name merged ids (resolve with find)
+    private final int[] outLen, inLen;
+    private int live;
+
+    // search scratch, stamped per insertion
+    private final int[] seenF, seenB;
+    private int epoch;
+    private int[] stack = new int[16], fwd = new int[16], bwd = new int[16];
+
+    public IncrementalSCC(Graph graph) {
+        this(graph, new SimpleMetrics());
+    }
+
+    public IncrementalSCC(Graph graph, Metrics m) {
+        this.graph = graph;
+        CsrGraph g = graph.csr();
+        TarjanSCC.Result scc = new TarjanSCC().compute(g, m);
+        int k = scc.count();
+        this.live = k;
+        this.comp = scc.compId.clone();
+        this.alias = new int[k];
+        this.ord = new int[k];
+        this.members = new int[k][];
+        this.size = new int[k];
+        for (int c = 0; c < k; c++) {
+            alias[c] = c;
+            ord[c] = k - 1 - c; // Tarjan emits components in reverse topological order
+            members[c] = scc.membersOf(c);
+            size[c] = members[c].length;
+        }
+
+        this.outLen = new int[k];
+        this.inLen = new int[k];
+        for (int u = 0; u < g.n; u++) {
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int cu = comp[u], cv = comp[g.targets[i]];
+                if (cu != cv) {
+                    outLen[cu]++;
+                    inLen[cv]++;
+                }
+            }
+        }
+        this.out = new int[k][];
+        this.outW = new int[k][];
+        this.in = new int[k][];
+        for (int c = 0; c < k; c++) {
+            out[c] = new int[Math.max(2, outLen[c])];
+            outW[c] = new int[out[c].length];
+            in[c] = new int[Math.max(2, inLen[c])];
+        }
+        Arrays.fill(outLen, 0);
+        Arrays.fill(inLen, 0);
+        for (int u = 0; u < g.n; u++) {
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int cu = comp[u], cv = comp[g.targets[i]];
+                if (cu != cv)
+                    link(cu, cv, g.weights[i]);
+            }
+        }
+
+        this.seenF = new int[k];
+        this.seenB = new int[k];
+    }
+
+    public Graph graph() {
+        return graph;
+    }
+
+    public int componentCount() {
+        return live;
+    }
+
+    /** Live component id of v; stays valid until that component is merged. */
+    public int componentOf(int v) {
+        return comp[v];
+    }
+
+    /** Members of live component c, in no particular order. */
+    public int[] members(int c) {
+        if (alias[c] != c)
+            throw new IllegalArgumentException("Component " + c + " was merged into " + find(c));
+        return Arrays.copyOf(members[c], size[c]);
+    }
+
+    public void addEdge(int u, int v, int w, Metrics m) {
+        graph.addEdge(u, v, w);
+        insert(u, v, w, m);
+    }
+
+    /** Adds the batch to the graph, then folds each edge into the components. */
+    public void addEdges(int[] us, int[] vs, int[] ws, Metrics m) {
+        graph.addEdges(us, vs, ws);
+        for (int i = 0; i < us.length; i++)
+            insert(us[i], vs[i], ws[i], m);
+    }
+
+    private void insert(int u, int v, int w, Metrics m) {
+        int cu = comp[u], cv = comp[v];
+        if (cu == cv)
+            return;
+        link(cu, cv, w);
+        if (ord[cu] < ord[cv])
+            return;
+
+        // forward from cv bounded by ord[cu], backward from cu bounded by ord[cv]
+        epoch++;
+        int lb = ord[cv], ub = ord[cu];
+        int nf = search(cv, ub, true, seenF, m);
+        int nb = search(cu, lb, false, seenB, m);
+        int[] f = fwd, b = bwd;
+
+        // ord slots of the visited region (components found by both searches counted once)
+        int[] pool = new int[nf + nb];
+        int slots = 0;
+        for (int i = 0; i < nf; i++)
+            pool[slots++] = ord[f[i]];
+        for (int i = 0; i < nb; i++) {
+            if (seenF[b[i]] != epoch)
+                pool[slots++] = ord[b[i]];
+        }
+        Arrays.sort(pool, 0, slots);
+
+        boolean cycle = seenF[cu] == epoch;
+        if (!cycle) {
+            // Pearce-Kelly: everything reaching cu goes before everything reached from cv
+            sortByOrd(b, nb);
+            sortByOrd(f, nf);
+            int p = 0;
+            for (int i = 0; i < nb; i++)
+                ord[b[i]] = pool[p++];
+            for (int i = 0; i < nf; i++)
+                ord[f[i]] = pool[p++];
+            return;
+        }
+
+        // components both reached from cv and reaching cu form the new SCC
+        int nm = 0, nbOnly = 0, nfOnly = 0;
+        int[] merged = new int[Math.min(nf, nb)];
+        for (int i = 0; i < nf; i++) {
+            if (seenB[f[i]] == epoch)
+                merged[nm++] = f[i];
+            else
+                f[nfOnly++] = f[i];
+        }
+        for (int i = 0; i < nb; i++) {
+            if (seenF[b[i]] != epoch)
+                b[nbOnly++] = b[i];
+        }
+        sortByOrd(b, nbOnly);
+        sortByOrd(f, nfOnly);
+        // B-only take the lowest slots and F-only the highest, so neither moves
+        // past an unvisited neighbour; the merged component sits in between
+        for (int i = 0; i < nbOnly; i++)
+            ord[b[i]] = pool[i];
+        int rep = merge(merged, nm);
+        ord[rep] = pool[nbOnly];
+        for (int i = 0; i < nfOnly; i++)
+            ord[f[i]] = pool[slots - nfOnly + i];
+    }
+
+    /**
+     * DFS over live components from start, forward (out edges, ord <= bound)
+     * or backward (in edges, ord >= bound). Visited ids go to fwd / bwd.
+     */
+    private int search(int start, int bound, boolean forward, int[] seen, Metrics m) {
+        int[] found = forward ? fwd : bwd;
+        int count = 0, sp = 0;
+        seen[start] = epoch;
+        stack[sp++] = start;
+        long scans = 0;
+        while (sp > 0) {
+            int c = stack[--sp];
+            if (count == found.length)
+                found = Arrays.copyOf(found, count * 2);
+            found[count++] = c;
+            int[] adj = forward ? out[c] : in[c];
+            int len = forward ? outLen[c] : inLen[c];
+            for (int i = 0; i < len; i++) {
+                scans++;
+                int x = find(adj[i]);
+                if (seen[x] == epoch || x == c)
+                    continue;
+                if (forward ? ord[x] > bound : ord[x] < bound)
+                    continue;
+                seen[x] = epoch;
+                if (sp == stack.length)
+                    stack = Arrays.copyOf(stack, sp * 2);
+                stack[sp++] = x;
+            }
+        }
+        if (forward)
+            fwd = found;
+        else
+            bwd = found;
+        m.addDfsVisits(count);
+        m.addDfsEdgeScans(scans);
+        return count;
+    }
+
+    /** Folds components into the largest one; returns the surviving id. */
+    private int merge(int[] cs, int k) {
+        int rep = cs[0];
+        int memberTotal = 0, outTotal = 0, inTotal = 0;
+        for (int i = 0; i < k; i++) {
+            int c = cs[i];
+            if (size[c] > size[rep])
+                rep = c;
+            memberTotal += size[c];
+            outTotal += outLen[c];
+            inTotal += inLen[c];
+        }
+        for (int i = 0; i < k; i++)
+            alias[cs[i]] = rep;
+
+        int[] mem = Arrays.copyOf(members[rep], Math.max(members[rep].length, memberTotal));
+        int[] o = new int[Math.max(2, outTotal)], ow = new int[o.length], ii = new int[Math.max(2, inTotal)];
+        int ms = size[rep], os = 0, is = 0;
+        for (int i = 0; i < k; i++) {
+            int c = cs[i];
+            if (c != rep) {
+                for (int j = 0; j < size[c]; j++) {
+                    int v = members[c][j];
+                    comp[v] = rep;
+                    mem[ms++] = v;
+                }
+            }
+            for (int j = 0; j < outLen[c]; j++) {
+                if (find(out[c][j]) != rep) {
+                    o[os] = out[c][j];
+                    ow[os++] = outW[c][j];
+                }
+            }
+            for (int j = 0; j < inLen[c]; j++) {
+                if (find(in[c][j]) != rep)
+                    ii[is++] = in[c][j];
+            }
+            if (c != rep) {
+                members[c] = out[c] = outW[c] = in[c] = null;
+                size[c] = outLen[c] = inLen[c] = 0;
+            }
+        }
+        members[rep] = mem;
+        size[rep] = ms;
+        out[rep] = o;
+        outW[rep] = ow;
+        outLen[rep] = os;
+        in[rep] = ii;
+        inLen[rep] = is;
+        live -= k - 1;
+        return rep;
+    }
+
+    private void link(int cu, int cv, int w) {
+        if (outLen[cu] == out[cu].length) {
+            out[cu] = Arrays.copyOf(out[cu], outLen[cu] * 2);
+            outW[cu] = Arrays.copyOf(outW[cu], outLen[cu] * 2);
+        }
+        out[cu][outLen[cu]] = cv;
+        outW[cu][outLen[cu]++] = w;
+        if (inLen[cv] == in[cv].length)
+            in[cv] = Arrays.copyOf(in[cv], inLen[cv] * 2);
+        in[cv][inLen[cv]++] = cu;
+    }
+
+    private int find(int c) {
+        int r = c;
+        while (alias[r] != r)
+            r = alias[r];
+        while (alias[c] != r) {
+            int next = alias[c];
+            alias[c] = r;
+            c = next;
+        }
+        return r;
+    }
+
+    private void sortByOrd(int[] cs, int k) {
+        long[] keyed = new long[k];
+        for (int i = 0; i < k; i++)
+            keyed[i] = ((long) ord[cs[i]] << 32) | cs[i];
+        Arrays.sort(keyed);
+        for (int i = 0; i < k; i++)
+            cs[i] = (int) keyed[i];
+    }
+
+    /** Live components in topological order, in the TarjanSCC result shape. */
+    public TarjanSCC.Result snapshot() {
+        int[] dense = denseIds();
+        int[] compId = new int[comp.length];
+        for (int v = 0; v < comp.length; v++)
+            compId[v] = dense[comp[v]];
+        return TarjanSCC.Result.fromCompIds(compId, live);
+    }
+
+    /**
+     * Condensation DAG over the ids of {@link #snapshot()}, with the same
+     * min/max weights as {@link CondensationGraphBuilder#buildWeighted}.
+     * Built from the component edge lists, so it costs O(components + cross
+     * edges) and never touches the vertex-level graph.
+     */
+    public CondensationGraphBuilder.Result condensation() {
+        int[] dense = denseIds();
+        int[] byDense = new int[live];
+        for (int c = 0; c < dense.length; c++) {
+            if (dense[c] >= 0)
+                byDense[dense[c]] = c;
+        }
+        int total = 0;
+        for (int c : byDense)
+            total += outLen[c];
+        int[] offsets = new int[live + 1];
+        int[] targets = new int[total], minW = new int[total], maxW = new int[total];
+        int[] slot = new int[live];
+        Arrays.fill(slot, -1);
+        int m = 0;
+        for (int d = 0; d < live; d++) {
+            int c = byDense[d], first = m;
+            for (int i = 0; i < outLen[c]; i++) {
+                int t = dense[find(out[c][i])], w = outW[c][i];
+                if (slot[t] >= first) {
+                    minW[slot[t]] = Math.min(minW[slot[t]], w);
+                    maxW[slot[t]] = Math.max(maxW[slot[t]], w);
+                    continue;
+                }
+                slot[t] = m;
+                targets[m] = t;
+                minW[m] = w;
+                maxW[m++] = w;
+            }
+            offsets[d + 1] = m;
+        }
+        targets = Arrays.copyOf(targets, m);
+        return new CondensationGraphBuilder.Result(
+                new CsrGraph(live, true, null, offsets, targets, Arrays.copyOf(minW, m)),
+                new CsrGraph(live, true, null, offsets, targets, Arrays.copyOf(maxW, m)));
+    }
+
+    /** dense[c] = rank of live component c by ord, -1 for merged ids. */
+    private int[] denseIds() {
+        int k = alias.length;
+        int[] byOrd = new int[k]; // ords of live components are distinct and below k
+        Arrays.fill(byOrd, -1);
+        for (int c = 0; c < k; c++) {
+            if (alias[c] == c)
+                byOrd[ord[c]] = c;
+        }
+        int[] dense = new int[k];
+        Arrays.fill(dense, -1);
+        int next = 0;
+        for (int o = 0; o < k; o++) {
+            if (byOrd[o] >= 0)
+                dense[byOrd[o]] = next++;
+        }
+        return dense;
+    }
+}
@@ -0,0 +1,90 @@
+package graph.scc;
+
+import common.metrics.Metrics;
+import graph.model.CsrGraph;
+
+import java.util.Arrays;
+
+/**
+ * Kosaraju's two-pass SCC algorithm, kept as an independent cross-check of
+ * TarjanSCC. Pass 1 records the DFS finish order on g; pass 2 walks the
+ * cached transpose {@link CsrGraph#reverse()} from the latest-finishing
+ * unassigned vertex, and every walk is exactly one component. Pass 1 is an
+ * iterative DFS (explicit stack + per-vertex edge cursor); pass 2 only needs
+ * reachability, so it pops a vertex and pushes all its unassigned
+ * predecessors, with the then idle cursor array holding compId.
+ *
+ * Pass 2 discovers components in topological order of the condensation; they
+ * are renumbered so that, as in TarjanSCC, every condensation edge goes from a
+ * higher id to a lower one. Members are ascending within each component.
+ * Metrics count the vertices and edges of both passes.
+ */
+public final class KosarajuSCC implements SccAlgorithm {
+
+    @Override
+    public TarjanSCC.Result compute(CsrGraph g, Metrics m) {
+        int n = g.n;
+        int[] finish = new int[n]; // vertices in increasing finish time
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        boolean[] seen = new boolean[n];
+        int done = 0;
+
+        int[] offsets = g.offsets, targets = g.targets;
+        for (int start = 0; start < n; start++) {
+            if (seen[start])
+                continue;
+            int sp = 0;
+            seen[start] = true;
+            m.incDfsVisits();
+            stack[sp++] = start;
+            cursor[start] = offsets[start];
+            while (sp > 0) {
+                int v = stack[sp - 1];
+                if (cursor[v] < offsets[v + 1]) {
+                    m.incDfsEdgeScans();
+                    int w = targets[cursor[v]++];
+                    if (!seen[w]) {
+                        seen[w] = true;
+                        m.incDfsVisits();
+                        stack[sp++] = w;
+                        cursor[w] = offsets[w];
+                    }
+                } else {
+                    finish[done++] = v;
+                    sp--;
+                }
+            }
+        }
+
+        CsrGraph r = g.reverse();
+        int[] compId = cursor; // pass 1 is over, reuse the cursor array
+        Arrays.fill(compId, -1);
+        int k = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int root = finish[i];
+            if (compId[root] >= 0)
+                continue;
+            int sp = 0;
+            compId[root] = k;
+            m.incDfsVisits();
+            stack[sp++] = root;
+            while (sp > 0) {
+                int v = stack[--sp];
+                for (int e = r.offsets[v]; e < r.offsets[v + 1]; e++) {
+                    m.incDfsEdgeScans();
+                    int u = r.targets[e];
+                    if (compId[u] < 0) {
+                        compId[u] = k;
+                        m.incDfsVisits();
+                        stack[sp++] = u;
+                    }
+                }
+            }
+            k++;
+        }
+        for (int v = 0; v < n; v++)
+            compId[v] = k - 1 - compId[v];
+        return TarjanSCC.Result.fromCompIds(compId, k);
+    }
+}
@@ -5,40 +5,42 @@ import common.metrics.SimpleMetrics;
 import graph.model.Graph;
 
 import java.nio.file.Path;
-import java.util.List;
+import java.util.Arrays;
 
 public final class MainSCC {
     public static void main(String[] args) {
         if (args.length < 2 || !"--input".equals(args[0])) {
-            System.err.println("Usage: java MainSCC --input data/your.json");
+            System.err.println("Usage: java MainSCC --input data/your.json [--scc tarjan|parallel|pearce|kosaraju]");
             System.exit(1);
         }
         Path input = Path.of(args[1]);
-        Graph g = Graph.fromJson(input);
+        String engine = "tarjan";
+        for (int i = 2; i < args.length; i++) {
+            if ("--scc".equals(args[i]) && i + 1 < args.length)
+                engine = args[++i];
+        }
+        Graph g = Graph.load(input);
 
         Metrics m = new SimpleMetrics();
-        TarjanSCC tarjan = new TarjanSCC();
+        SccAlgorithm scc = SccAlgorithm.named(engine);
 
         m.reset();
         m.start();
-        TarjanSCC.Result res = tarjan.compute(g, m);
+        TarjanSCC.Result res = scc.compute(g, m);
         m.stop();
 
-        System.out.println("SCC count: " + res.components.size());
-        for (int i = 0; i < res.components.size(); i++) {
-            List<Integer> comp = res.components.get(i);
-            System.out.println("  C" + i + " size=" + comp.size() + " -> " + comp);
+        System.out.println("SCC count: " + res.count());
+        for (int i = 0; i < res.count(); i++) {
+            System.out.println("  C" + i + " size=" + res.compSize(i) + " -> " + Arrays.toString(res.membersOf(i)));
         }
         System.out.println("Metrics: dfsVisits=" + m.getDfsVisits()
                 + " dfsEdgeScans=" + m.getDfsEdgeScans()
                 + " time(ns)=" + m.elapsedNanos());
 
         CondensationGraphBuilder builder = new CondensationGraphBuilder();
-        Graph dag = builder.build(g, res.components.size(), res.compId);
+        Graph dag = builder.build(g, res.count(), res.compId);
         System.out.println("Condensation DAG nodes=" + dag.n);
-        int mcount = 0;
-        for (int u = 0; u < dag.n; u++)
-            mcount += dag.adj.get(u).size();
+        int mcount = dag.edgeCount();
         System.out.println("Condensation DAG edges=" + mcount);
     }
 }
@@ -0,0 +1,342 @@
+package graph.scc;
+
+import common.concurrent.ParallelFor;
+import common.metrics.Metrics;
+import graph.model.CsrGraph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parallel SCC decomposition on a ForkJoinPool: trim + forward-backward
+ * reachability. Vertices with no live in- or out-edges are peeled as
+ * singletons; each remaining partition picks a pivot, colours its forward and
+ * backward closure (BFS frontiers expanded in parallel when wide), emits the
+ * intersection as one SCC and recurses on the three leftovers as independent
+ * tasks. Small partitions fall back to a Tarjan pass restricted to the
+ * partition.
+ * Components are renumbered by smallest member vertex so output does not
+ * depend on scheduling; dfsVisits/dfsEdgeScans count BFS + Tarjan work.
+ */
+public final class ParallelSCC implements SccAlgorithm {
+
+    private static final VarHandle COLOR = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int TRIMMED = -1;
+    private static final int NONE = Integer.MIN_VALUE;
+    private static final int GRAIN = 1024;
+
+    private final ForkJoinPool pool;
+    private final int tarjanCutoff; // partitions up to this size run sequential Tarjan
+    private final int parallelFrontier; // BFS levels at least this wide are split across workers
+
+    public ParallelSCC() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelSCC(ForkJoinPool pool) {
+        this(pool, 4096, 2 * GRAIN);
+    }
+
+    ParallelSCC(ForkJoinPool pool, int tarjanCutoff, int parallelFrontier) {
+        this.pool = pool;
+        this.tarjanCutoff = tarjanCutoff;
+        this.parallelFrontier = parallelFrontier;
+    }
+
+    @Override
+    public TarjanSCC.Result compute(CsrGraph g, Metrics m) {
+        Run run = new Run(g);
+        int[] active = run.trim();
+        if (active.length > 0)
+            pool.invoke(run.new Part(null, active, 0));
+        m.addDfsVisits(run.visits.sum());
+        m.addDfsEdgeScans(run.scans.sum());
+        return run.canonical();
+    }
+
+    /** State of one decomposition; arrays are shared, partitions touch disjoint vertices. */
+    private final class Run {
+        final CsrGraph g, rg;
+        final int n;
+        final int[] color, comp;
+        final int[] idx, low, cursor; // restricted Tarjan scratch
+        final boolean[] onSt;
+        final AtomicInteger nextColor = new AtomicInteger(1);
+        final AtomicInteger nextComp = new AtomicInteger();
+        final LongAdder visits = new LongAdder(), scans = new LongAdder();
+
+        Run(CsrGraph g) {
+            this.g = g;
+            this.rg = g.reverse();
+            this.n = g.n;
+            this.color = new int[n];
+            this.comp = new int[n];
+            this.idx = new int[n];
+            this.low = new int[n];
+            this.cursor = new int[n];
+            this.onSt = new boolean[n];
+        }
+
+        /** Peels trivial SCCs in parallel rounds; returns the vertices still live. */
+        int[] trim() {
+            int[] active = new int[n];
+            for (int v = 0; v < n; v++)
+                active[v] = v;
+            while (active.length > 0) {
+                int[] cur = active;
+                pool.invoke(new ParallelFor(0, cur.length, GRAIN, (lo, hi) -> {
+                    long scanned = 0;
+                    for (int i = lo; i < hi; i++) {
+                        int v = cur[i];
+                        int out = firstLive(g, v);
+                        scanned += out < 0 ? g.outDegree(v) : out - g.offsets[v] + 1;
+                        int in = out < 0 ? -1 : firstLive(rg, v);
+                        if (out >= 0)
+                            scanned += in < 0 ? rg.outDegree(v) : in - rg.offsets[v] + 1;
+                        if (out < 0 || in < 0)
+                            color[v] = TRIMMED;
+                    }
+                    visits.add(hi - lo);
+                    scans.add(scanned);
+                }));
+                int live = 0;
+                for (int v : cur) {
+                    if (color[v] == TRIMMED)
+                        comp[v] = nextComp.getAndIncrement();
+                    else
+                        cur[live++] = v;
+                }
+                int removed = cur.length - live;
+                active = Arrays.copyOf(cur, live);
+                if (removed == 0 || removed < cur.length / 64)
+                    break;
+            }
+            return active;
+        }
+
+        /** Position of the first edge of v in h leading to another live vertex, or -1. */
+        private int firstLive(CsrGraph h, int v) {
+            for (int i = h.offsets[v]; i < h.offsets[v + 1]; i++) {
+                int w = h.targets[i];
+                if (w != v && color[w] != TRIMMED)
+                    return i;
+            }
+            return -1;
+        }
+
+        /**
+         * Level-synchronous BFS from pivot over h. A neighbour coloured matchA is
+         * claimed as setA, one coloured matchB as setB. Visited vertices are
+         * written to buf; returns their count.
+         */
+        int reach(CsrGraph h, int pivot, int[] buf, int matchA, int setA, int matchB, int setB) {
+            buf[0] = pivot;
+            int head = 0, tail = 1;
+            while (head < tail) {
+                int levelEnd = tail;
+                if (levelEnd - head >= parallelFrontier) {
+                    AtomicInteger out = new AtomicInteger(tail);
+                    int from = head;
+                    new ParallelFor(from, levelEnd, GRAIN, (lo, hi) -> {
+                        int[] local = new int[64];
+                        int k = 0;
+                        long scanned = 0;
+                        for (int i = lo; i < hi; i++) {
+                            int u = buf[i];
+                            for (int e = h.offsets[u]; e < h.offsets[u + 1]; e++) {
+                                scanned++;
+                                int w = h.targets[e];
+                                if (claim(w, matchA, setA, matchB, setB)) {
+                                    if (k == local.length)
+                                        local = Arrays.copyOf(local, k * 2);
+                                    local[k++] = w;
+                                }
+                            }
+                        }
+                        System.arraycopy(local, 0, buf, out.getAndAdd(k), k);
+                        scans.add(scanned);
+                    }).invoke();
+                    tail = out.get();
+                } else {
+                    long scanned = 0;
+                    for (int i = head; i < levelEnd; i++) {
+                        int u = buf[i];
+                        for (int e = h.offsets[u]; e < h.offsets[u + 1]; e++) {
+                            scanned++;
+                            int w = h.targets[e];
+                            if (claim(w, matchA, setA, matchB, setB))
+                                buf[tail++] = w;
+                        }
+                    }
+                    scans.add(scanned);
+                }
+                head = levelEnd;
+            }
+            visits.add(tail);
+            return tail;
+        }
+
+        private boolean claim(int w, int matchA, int setA, int matchB, int setB) {
+            int cw = color[w];
+            if (cw == matchA)
+                return COLOR.compareAndSet(color, w, matchA, setA);
+            if (cw == matchB)
+                return COLOR.compareAndSet(color, w, matchB, setB);
+            return false;
+        }
+
+        /** Iterative Tarjan over the subgraph induced by vertices coloured c. */
+        void tarjan(int[] members, int c) {
+            int[] st = new int[members.length];
+            int[] call = new int[members.length];
+            int sp = 0, csp = 0, time = 0;
+            long scanned = 0;
+            for (int root : members) {
+                if (idx[root] != 0)
+                    continue;
+                idx[root] = low[root] = ++time;
+                cursor[root] = g.offsets[root];
+                st[sp++] = root;
+                onSt[root] = true;
+                call[csp++] = root;
+                while (csp > 0) {
+                    int u = call[csp - 1];
+                    if (cursor[u] < g.offsets[u + 1]) {
+                        scanned++;
+                        int v = g.targets[cursor[u]++];
+                        if (color[v] != c)
+                            continue;
+                        if (idx[v] == 0) {
+                            idx[v] = low[v] = ++time;
+                            cursor[v] = g.offsets[v];
+                            st[sp++] = v;
+                            onSt[v] = true;
+                            call[csp++] = v;
+                        } else if (onSt[v]) {
+                            low[u] = Math.min(low[u], idx[v]);
+                        }
+                        continue;
+                    }
+                    csp--;
+                    if (low[u] == idx[u]) {
+                        int id = nextComp.getAndIncrement();
+                        int v;
+                        do {
+                            v = st[--sp];
+                            onSt[v] = false;
+                            comp[v] = id;
+                        } while (v != u);
+                    }
+                    if (csp > 0) {
+                        int parent = call[csp - 1];
+                        low[parent] = Math.min(low[parent], low[u]);
+                    }
+                }
+            }
+            visits.add(members.length);
+            scans.add(scanned);
+        }
+
+        /** Renumbers components by smallest member so the result is deterministic. */
+        TarjanSCC.Result canonical() {
+            int[] remap = new int[nextComp.get()];
+            Arrays.fill(remap, -1);
+            int[] compId = new int[n];
+            int k = 0;
+            for (int v = 0; v < n; v++) {
+                int raw = comp[v];
+                if (remap[raw] < 0)
+                    remap[raw] = k++;
+                compId[v] = remap[raw];
+            }
+            return TarjanSCC.Result.fromCompIds(compId, k);
+        }
+
+        /** One FW-BW partition; leftovers are forked as child completers. */
+        final class Part extends CountedCompleter<Void> {
+            private static final long serialVersionUID = 1L;
+
+            private int[] members; // dropped once split so ancestors do not pin memory
+            private final int c;
+            private final boolean sequential;
+
+            Part(CountedCompleter<?> parent, int[] members, int c) {
+                this(parent, members, c, false);
+            }
+
+            Part(CountedCompleter<?> parent, int[] members, int c, boolean sequential) {
+                super(parent);
+                this.members = members;
+                this.c = c;
+                this.sequential = sequential;
+            }
+
+            @Override
+            public void compute() {
+                int[] members = this.members;
+                this.members = null;
+                if (sequential || members.length <= tarjanCutoff) {
+                    tarjan(members, c);
+                    tryComplete();
+                    return;
+                }
+                int pivot = members[members.length / 2];
+                int fw = nextColor.getAndAdd(3), bw = fw + 1, scc = fw + 2;
+                int[] buf = new int[members.length];
+
+                color[pivot] = fw;
+                reach(g, pivot, buf, c, fw, NONE, NONE);
+                color[pivot] = scc;
+                reach(rg, pivot, buf, c, bw, fw, scc);
+
+                int nf = 0, nb = 0, nr = 0;
+                for (int v : members) {
+                    int cv = color[v];
+                    if (cv == fw)
+                        nf++;
+                    else if (cv == bw)
+                        nb++;
+                    else if (cv == c)
+                        nr++;
+                }
+                int[] fwOnly = new int[nf], bwOnly = new int[nb], rest = new int[nr];
+                int id = nextComp.getAndIncrement();
+                nf = nb = nr = 0;
+                for (int v : members) {
+                    int cv = color[v];
+                    if (cv == fw)
+                        fwOnly[nf++] = v;
+                    else if (cv == bw)
+                        bwOnly[nb++] = v;
+                    else if (cv == c)
+                        rest[nr++] = v;
+                    else
+                        comp[v] = id;
+                }
+
+                fork(fwOnly, fw, members.length);
+                fork(bwOnly, bw, members.length);
+                fork(rest, c, members.length);
+                tryComplete();
+            }
+
+            /**
+             * A leftover holding almost the whole parent means the pivot peeled
+             * little; recursing again risks quadratic work, so finish it with
+             * Tarjan instead.
+             */
+            private void fork(int[] part, int partColor, int parentSize) {
+                if (part.length == 0)
+                    return;
+                boolean lopsided = (long) part.length * 8 > (long) parentSize * 7;
+                addToPendingCount(1);
+                new Part(this, part, partColor, lopsided).fork();
+            }
+        }
+    }
+}
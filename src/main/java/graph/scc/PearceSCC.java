@@ -0,0 +1,98 @@
+package graph.scc;
+
+import common.metrics.Metrics;
+import graph.model.CsrGraph;
+
+/**
+ * Pearce's space-efficient SCC algorithm (PEA_FIND_SCC3, iterative).
+ * One rindex[] replaces Tarjan's idx[], low[], onSt[] and compId[]: it holds
+ * the lowest reachable index while a vertex is live, and the component id once
+ * it is assigned. Ids are handed out from n-1 downwards and indices are
+ * recycled, so an assigned vertex never looks lower than a live one and no
+ * on-stack flag is needed. The Tarjan vertex stack and the DFS call stack never
+ * hold the same vertex, so they share one int[n] growing from opposite ends.
+ *
+ * Working set: rindex, stack and per-depth edge cursors (3 ints per vertex) and
+ * a root bit, against Tarjan's 5 ints and a boolean. compId and members of
+ * the flat {@link TarjanSCC.Result} reuse rindex and the cursor array.
+ * Components are numbered in completion order, as TarjanSCC numbers them;
+ * members are ascending within each component.
+ */
+public final class PearceSCC implements SccAlgorithm {
+
+    @Override
+    public TarjanSCC.Result compute(CsrGraph g, Metrics m) {
+        int n = g.n;
+        int[] offsets = g.offsets, targets = g.targets;
+        int[] rindex = new int[n]; // 0 = unvisited; live: lowest index seen; assigned: n-1-component
+        long[] root = new long[(n + 63) >>> 6];
+        int[] stack = new int[n]; // [0, sp): Tarjan stack; [csp, n): DFS call stack
+        int[] cursor = new int[n]; // next edge of the call-stack vertex at the same slot
+        int sp = 0, csp = n;
+        int index = 1, c = n - 1;
+
+        for (int start = 0; start < n; start++) {
+            if (rindex[start] != 0)
+                continue;
+            m.incDfsVisits();
+            rindex[start] = index++;
+            root[start >>> 6] |= 1L << start;
+            stack[--csp] = start;
+            cursor[csp] = offsets[start];
+
+            while (csp < n) {
+                int v = stack[csp];
+                if (cursor[csp] < offsets[v + 1]) {
+                    m.incDfsEdgeScans();
+                    int w = targets[cursor[csp]++];
+                    if (rindex[w] == 0) {
+                        m.incDfsVisits();
+                        rindex[w] = index++;
+                        root[w >>> 6] |= 1L << w;
+                        stack[--csp] = w;
+                        cursor[csp] = offsets[w];
+                    } else if (rindex[w] < rindex[v]) {
+                        rindex[v] = rindex[w];
+                        root[v >>> 6] &= ~(1L << v);
+                    }
+                    continue;
+                }
+
+                csp++;
+                if ((root[v >>> 6] & (1L << v)) != 0) {
+                    index--;
+                    while (sp > 0 && rindex[v] <= rindex[stack[sp - 1]]) {
+                        rindex[stack[--sp]] = c;
+                        index--;
+                    }
+                    rindex[v] = c--;
+                } else {
+                    stack[sp++] = v;
+                }
+                if (csp < n) {
+                    int parent = stack[csp];
+                    if (rindex[v] < rindex[parent]) {
+                        rindex[parent] = rindex[v];
+                        root[parent >>> 6] &= ~(1L << parent);
+                    }
+                }
+            }
+        }
+
+        // Renumber in completion order (rindex becomes compId) and bucket the
+        // vertices by component into the now idle cursor[] array.
+        int count = n - 1 - c;
+        int[] compOffsets = new int[count + 1];
+        for (int v = 0; v < n; v++) {
+            rindex[v] = n - 1 - rindex[v];
+            compOffsets[rindex[v] + 1]++;
+        }
+        for (int k = 0; k < count; k++)
+            compOffsets[k + 1] += compOffsets[k];
+        System.arraycopy(compOffsets, 0, stack, 0, count);
+        int[] members = cursor;
+        for (int v = 0; v < n; v++)
+            members[stack[rindex[v]]++] = v;
+        return new TarjanSCC.Result(rindex, members, compOffsets);
+    }
+}
@@ -0,0 +1,34 @@
+package graph.scc;
+
+import common.metrics.Metrics;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+
+/**
+ * Common entry point for SCC engines. Every engine returns the
+ * {@link TarjanSCC.Result} shape (components + compId).
+ */
+public interface SccAlgorithm {
+
+    TarjanSCC.Result compute(CsrGraph g, Metrics m);
+
+    default TarjanSCC.Result compute(Graph g, Metrics m) {
+        return compute(g.csr(), m);
+    }
+
+    /** Engine by CLI name: "tarjan", "parallel", "pearce" or "kosaraju". */
+    static SccAlgorithm named(String name) {
+        switch (name) {
+            case "tarjan":
+                return new TarjanSCC();
+            case "parallel":
+                return new ParallelSCC();
+            case "pearce":
+                return new PearceSCC();
+            case "kosaraju":
+                return new KosarajuSCC();
+            default:
+                throw new IllegalArgumentException("Unknown SCC engine: " + name);
+        }
+    }
+}
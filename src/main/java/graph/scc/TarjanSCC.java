@@ -1,81 +1,209 @@
 package graph.scc;
 
 import common.metrics.Metrics;
-import graph.model.Edge;
+import graph.model.CsrGraph;
 import graph.model.Graph;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Tarjan's algorithm for strongly connected components (SCC) in a directed
  * graph.
  * Usage: new TarjanSCC().compute(graph, metrics) -> components + compId map.
+ * The DFS is iterative (explicit call stack with per-vertex edge cursors), so
+ * depth is bounded by heap, not by the thread stack.
+ * Components are written straight into flat members/offsets arrays as they
+ * are popped, so the result holds no per-component objects.
  */
 
-public class TarjanSCC {
+public class TarjanSCC implements SccAlgorithm {
 
+    /**
+     * Flat components: component c is members[offsets[c] .. offsets[c+1]).
+     * {@link #components} is a read-only boxed view over the same arrays for
+     * callers that still want lists; it allocates nothing until read.
+     */
     public static final class Result {
-        public final List<List<Integer>> components; // each SCC as list of vertices
         public final int[] compId; // compId[v] = component index [0..k-1]
+        public final int[] members; // vertices grouped by component
+        public final int[] offsets; // k+1 entries
+        public final List<List<Integer>> components; // boxed view over members/offsets
 
+        public Result(int[] compId, int[] members, int[] offsets) {
+            this.compId = compId;
+            this.members = members;
+            this.offsets = offsets;
+            this.components = new ComponentsView(members, offsets);
+        }
+
+        /** Compatibility adapter: flattens boxed components. */
         public Result(List<List<Integer>> comps, int[] id) {
-            this.components = comps;
-            this.compId = id;
+            this(id, flatMembers(comps, id.length), flatOffsets(comps));
+        }
+
+        public int count() {
+            return offsets.length - 1;
+        }
+
+        public int compSize(int c) {
+            return offsets[c + 1] - offsets[c];
+        }
+
+        /** Copy of component c's members. */
+        public int[] membersOf(int c) {
+            return Arrays.copyOfRange(members, offsets[c], offsets[c + 1]);
+        }
+
+        /**
+         * Buckets vertices by compId (ascending within each component) into a
+         * Result; for engines that only produce the compId map.
+         */
+        public static Result fromCompIds(int[] compId, int k) {
+            int[] offsets = new int[k + 1];
+            for (int c : compId)
+                offsets[c + 1]++;
+            for (int c = 0; c < k; c++)
+                offsets[c + 1] += offsets[c];
+            int[] next = Arrays.copyOf(offsets, k);
+            int[] members = new int[compId.length];
+            for (int v = 0; v < compId.length; v++)
+                members[next[compId[v]]++] = v;
+            return new Result(compId, members, offsets);
+        }
+
+        private static int[] flatMembers(List<List<Integer>> comps, int n) {
+            int[] members = new int[n];
+            int i = 0;
+            for (List<Integer> comp : comps) {
+                for (int v : comp)
+                    members[i++] = v;
+            }
+            return members;
+        }
+
+        private static int[] flatOffsets(List<List<Integer>> comps) {
+            int[] offsets = new int[comps.size() + 1];
+            for (int c = 0; c < comps.size(); c++)
+                offsets[c + 1] = offsets[c] + comps.get(c).size();
+            return offsets;
         }
     }
 
+    private static final class ComponentsView extends AbstractList<List<Integer>> implements RandomAccess {
+        private final int[] members, offsets;
+
+        ComponentsView(int[] members, int[] offsets) {
+            this.members = members;
+            this.offsets = offsets;
+        }
+
+        @Override
+        public List<Integer> get(int c) {
+            return new Slice(members, offsets[c], offsets[c + 1]);
+        }
+
+        @Override
+        public int size() {
+            return offsets.length - 1;
+        }
+    }
+
+    private static final class Slice extends AbstractList<Integer> implements RandomAccess {
+        private final int[] a;
+        private final int from, to;
+
+        Slice(int[] a, int from, int to) {
+            this.a = a;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Integer get(int i) {
+            if (i < 0 || i >= to - from)
+                throw new IndexOutOfBoundsException("Index: " + i + ", size: " + (to - from));
+            return a[from + i];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    @Override
     public Result compute(Graph g, Metrics m) {
+        return compute(g.csr(), m);
+    }
+
+    @Override
+    public Result compute(CsrGraph g, Metrics m) {
         int n = g.n;
+        int[] offsets = g.offsets, targets = g.targets;
         int[] idx = new int[n]; // discovery time (0 = unvisited)
         int[] low = new int[n];
+        int[] cursor = new int[n]; // next edge to scan for vertices on the call stack
         boolean[] onSt = new boolean[n];
-        Deque<Integer> st = new ArrayDeque<>();
-        int[] time = { 0 };
-        List<List<Integer>> comps = new ArrayList<>();
+        int[] st = new int[n]; // Tarjan vertex stack
+        int[] call = new int[n]; // DFS call stack
+        int sp = 0, csp = 0, time = 0;
+        int[] members = new int[n];
+        int[] compStart = new int[n + 1];
+        int k = 0, filled = 0;
         int[] compId = new int[n];
         for (int i = 0; i < n; i++)
             compId[i] = -1;
 
-        for (int v = 0; v < n; v++) {
-            if (idx[v] == 0)
-                dfs(v, g, m, idx, low, onSt, st, time, comps, compId);
-        }
-        return new Result(comps, compId);
-    }
+        for (int root = 0; root < n; root++) {
+            if (idx[root] != 0)
+                continue;
+            m.incDfsVisits();
+            idx[root] = low[root] = ++time;
+            cursor[root] = offsets[root];
+            st[sp++] = root;
+            onSt[root] = true;
+            call[csp++] = root;
 
-    private void dfs(int u, Graph g, Metrics m,
-            int[] idx, int[] low, boolean[] onSt, Deque<Integer> st, int[] time,
-            List<List<Integer>> comps, int[] compId) {
-        m.incDfsVisits();
-        idx[u] = low[u] = ++time[0];
-        st.push(u);
-        onSt[u] = true;
-
-        for (Edge e : g.adj.get(u)) {
-            m.incDfsEdgeScans();
-            int v = e.v;
-            if (idx[v] == 0) {
-                dfs(v, g, m, idx, low, onSt, st, time, comps, compId);
-                low[u] = Math.min(low[u], low[v]);
-            } else if (onSt[v]) {
-                low[u] = Math.min(low[u], idx[v]);
-            }
-        }
+            while (csp > 0) {
+                int u = call[csp - 1];
+                if (cursor[u] < offsets[u + 1]) {
+                    m.incDfsEdgeScans();
+                    int v = targets[cursor[u]++];
+                    if (idx[v] == 0) {
+                        m.incDfsVisits();
+                        idx[v] = low[v] = ++time;
+                        cursor[v] = offsets[v];
+                        st[sp++] = v;
+                        onSt[v] = true;
+                        call[csp++] = v;
+                    } else if (onSt[v]) {
+                        low[u] = Math.min(low[u], idx[v]);
+                    }
+                    continue;
+                }
 
-        if (low[u] == idx[u]) {
-            List<Integer> comp = new ArrayList<>();
-            while (true) {
-                int v = st.pop();
-                onSt[v] = false;
-                compId[v] = comps.size();
-                comp.add(v);
-                if (v == u)
-                    break;
+                csp--;
+                if (low[u] == idx[u]) {
+                    int id = k++;
+                    while (true) {
+                        int v = st[--sp];
+                        onSt[v] = false;
+                        compId[v] = id;
+                        members[filled++] = v;
+                        if (v == u)
+                            break;
+                    }
+                    compStart[k] = filled;
+                }
+                if (csp > 0) {
+                    int parent = call[csp - 1];
+                    low[parent] = Math.min(low[parent], low[u]);
+                }
             }
-            comps.add(comp);
         }
+        return new Result(compId, members, k == n ? compStart : Arrays.copyOf(compStart, k + 1));
     }
 }
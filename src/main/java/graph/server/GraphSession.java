@@ -0,0 +1,75 @@
+package graph.server;
+
+import common.metrics.Metrics;
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import graph.scc.CondensationGraphBuilder;
+import graph.scc.SccAlgorithm;
+import graph.scc.TarjanSCC;
+import graph.topo.KahnTopoSort;
+import graph.topo.ReachabilityIndex;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Everything a query needs, computed once per loaded graph: SCCs, the
+ * weighted condensation DAG (min weights for shortest, max for longest), its
+ * topological order and a reachability index over it. Immutable after
+ * construction, so any number of threads may query it. setupNanos holds the
+ * time of each setup phase.
+ */
+public final class GraphSession {
+    public final Graph graph;
+    public final TarjanSCC.Result scc;
+    public final CondensationGraphBuilder.Result dag;
+    public final int[] topo;
+    public final ReachabilityIndex reach;
+    public final long version; // graph.version() the condensation was built from
+    public final Map<String, Long> setupNanos; // scc, condensation, topo, reach
+
+    public GraphSession(Graph graph, SccAlgorithm engine) {
+        this.graph = graph;
+        this.version = graph.version();
+        Metrics m = new SimpleMetrics();
+        m.startPhase("scc");
+        this.scc = engine.compute(graph, m);
+        m.stopPhase("scc");
+        m.startPhase("condensation");
+        this.dag = new CondensationGraphBuilder().buildWeighted(graph, scc.count(), scc.compId);
+        m.stopPhase("condensation");
+        m.startPhase("topo");
+        KahnTopoSort.Result sorted = new KahnTopoSort().sort(dag.min, m);
+        m.stopPhase("topo");
+        if (!sorted.isDag())
+            throw new IllegalStateException("Condensation graph not a DAG (should not happen)");
+        this.topo = sorted.order;
+        m.startPhase("reach");
+        this.reach = new ReachabilityIndex(dag.min, topo, scc.compId, m);
+        m.stopPhase("reach");
+        this.setupNanos = m.phases();
+    }
+
+    public static GraphSession load(Path input, String engine) {
+        return new GraphSession(Graph.load(input), SccAlgorithm.named(engine));
+    }
+
+    public int vertexCount() {
+        return graph.n;
+    }
+
+    public int componentCount() {
+        return dag.min.n;
+    }
+
+    /** Condensation DAG with min inter-component weights. */
+    public CsrGraph shortestDag() {
+        return dag.min;
+    }
+
+    /** Condensation DAG with max inter-component weights. */
+    public CsrGraph longestDag() {
+        return dag.max;
+    }
+}
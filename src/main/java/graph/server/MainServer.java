@@ -0,0 +1,69 @@
+package graph.server;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * CLI:
+ * java graph.server.MainServer --input data/your.json [--scc tarjan|parallel|pearce|kosaraju] [--port P] [--threads N]
+ *     [--cache-mb MB]
+ *
+ * Loads the graph and precomputes SCC + condensation + topo order once, then
+ * answers the {@link QueryHandler} line protocol on stdin/stdout, or on
+ * 127.0.0.1:P when --port is given (0 picks a free port). --threads caps the
+ * number of concurrently served connections (default 64; extra ones get
+ * "ERR busy"); --cache-mb bounds
+ * the per-source result cache (default 64, 0 disables it).
+ */
+public final class MainServer {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2 || !"--input".equals(args[0])) {
+            System.err.println("Usage: java graph.server.MainServer --input data/your.json"
+                    + " [--scc tarjan|parallel|pearce|kosaraju] [--port P] [--threads N] [--cache-mb MB]");
+            System.exit(1);
+        }
+        Path input = Path.of(args[1]);
+        String engine = "tarjan";
+        Integer port = null;
+        int threads = 64;
+        long cacheBytes = QueryHandler.DEFAULT_CACHE_BYTES;
+        for (int i = 2; i < args.length; i++) {
+            if ("--scc".equals(args[i]) && i + 1 < args.length)
+                engine = args[++i];
+            else if ("--port".equals(args[i]) && i + 1 < args.length)
+                port = Integer.parseInt(args[++i]);
+            else if ("--threads".equals(args[i]) && i + 1 < args.length)
+                threads = Integer.parseInt(args[++i]);
+            else if ("--cache-mb".equals(args[i]) && i + 1 < args.length)
+                cacheBytes = Long.parseLong(args[++i]) << 20;
+        }
+
+        long t0 = System.nanoTime();
+        GraphSession session = GraphSession.load(input, engine);
+        System.err.println("[Server] loaded n=" + session.vertexCount()
+                + " components=" + session.componentCount()
+                + " dagEdges=" + session.shortestDag().edgeCount()
+                + " setup(ms)=" + (System.nanoTime() - t0) / 1_000_000);
+        StringBuilder phases = new StringBuilder("[Server] setup phases(ms):");
+        session.setupNanos.forEach((name, ns) -> phases.append(' ').append(name).append('=').append(ns / 1_000_000));
+        System.err.println(phases);
+
+        QueryServer server = new QueryServer(new QueryHandler(session, cacheBytes), threads);
+        if (port == null) {
+            server.serve(System.in, System.out);
+            server.close();
+            return;
+        }
+        int bound = server.listen(port);
+        System.err.println("[Server] listening on 127.0.0.1:" + bound);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                // exiting anyway
+            }
+        }));
+        server.awaitClose();
+    }
+}
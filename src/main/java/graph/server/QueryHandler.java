@@ -0,0 +1,133 @@
+package graph.server;
+
+import common.metrics.ConcurrentMetrics;
+import common.metrics.Metrics;
+import graph.dagsp.DagLongestPath;
+import graph.dagsp.DagPathCache;
+import graph.dagsp.DagShortestPaths;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Line protocol over a {@link GraphSession}; one request line in, one
+ * response line out. Vertices are original vertex ids; paths are reported as
+ * condensation components.
+ *
+ * PING                -> OK PONG
+ * INFO                -> OK n=.. components=.. dagEdges=..
+ * COMP v              -> OK component=c size=s members=[..]
+ * SHORTEST s t        -> OK dist=d path=[c..]      (dist=INF path=[] if unreachable)
+ * LONGEST s t         -> OK length=l path=[c..]    (length=NONE path=[] if unreachable)
+ * PATH s t            -> OK components=[c..] members=[[..], ..]   (shortest path, expanded)
+ * REACH s t           -> OK reachable=true|false   (from the precomputed index, no DAG pass)
+ * STATS               -> OK cacheHits=.. cacheMisses=.. cacheEntries=.. cacheBytes=.. evictions=.. relaxations=..
+ * anything else       -> ERR message
+ *
+ * Thread-safe. Per-source results come from a shared {@link DagPathCache}
+ * keyed on the session's graph version, so repeated sources with different
+ * destinations cost one DAG pass. All connections report into one
+ * {@link ConcurrentMetrics}, so STATS relaxations counts every DAG pass run.
+ */
+public final class QueryHandler {
+
+    public static final long DEFAULT_CACHE_BYTES = 64L << 20;
+
+    private final GraphSession session;
+    private final DagPathCache cache;
+    private final Metrics metrics = new ConcurrentMetrics();
+
+    public QueryHandler(GraphSession session) {
+        this(session, DEFAULT_CACHE_BYTES);
+    }
+
+    public QueryHandler(GraphSession session, long cacheBytes) {
+        this.session = session;
+        this.cache = new DagPathCache(cacheBytes);
+    }
+
+    public DagPathCache cache() {
+        return cache;
+    }
+
+    public String handle(String line) {
+        String[] parts = line.trim().split("\\s+");
+        try {
+            switch (parts[0].toUpperCase(Locale.ROOT)) {
+                case "PING":
+                    return "OK PONG";
+                case "INFO":
+                    return "OK n=" + session.vertexCount()
+                            + " components=" + session.componentCount()
+                            + " dagEdges=" + session.shortestDag().edgeCount();
+                case "COMP": {
+                    int c = session.scc.compId[vertex(parts, 1)];
+                    return "OK component=" + c + " size=" + session.scc.compSize(c)
+                            + " members=" + Arrays.toString(session.scc.membersOf(c));
+                }
+                case "SHORTEST": {
+                    int s = component(parts, 1), t = component(parts, 2);
+                    DagShortestPaths.Result r = shortest(s);
+                    int[] path = DagShortestPaths.reconstructPath(s, t, r.parent);
+                    String dist = path.length == 0 ? "INF" : Integer.toString(r.dist[t]);
+                    return "OK dist=" + dist + " path=" + Arrays.toString(path);
+                }
+                case "LONGEST": {
+                    int s = component(parts, 1), t = component(parts, 2);
+                    DagLongestPath.Result r = cache.longest(session.longestDag(), session.version, s, session.topo,
+                            metrics);
+                    int[] path = DagLongestPath.reconstructPath(s, t, r.parent);
+                    String length = path.length == 0 ? "NONE" : Integer.toString(r.best[t]);
+                    return "OK length=" + length + " path=" + Arrays.toString(path);
+                }
+                case "PATH": {
+                    int s = component(parts, 1), t = component(parts, 2);
+                    DagShortestPaths.Result r = shortest(s);
+                    int[] path = DagShortestPaths.reconstructPath(s, t, r.parent);
+                    StringBuilder members = new StringBuilder("[");
+                    for (int i = 0; i < path.length; i++) {
+                        if (i > 0)
+                            members.append(", ");
+                        members.append(Arrays.toString(session.scc.membersOf(path[i])));
+                    }
+                    return "OK components=" + Arrays.toString(path) + " members=" + members.append(']');
+                }
+                case "REACH":
+                    return "OK reachable=" + session.reach.reachable(vertex(parts, 1), vertex(parts, 2));
+                case "STATS":
+                    return "OK cacheHits=" + cache.hits()
+                            + " cacheMisses=" + cache.misses()
+                            + " cacheEntries=" + cache.size()
+                            + " cacheBytes=" + cache.bytes()
+                            + " evictions=" + cache.evictions()
+                            + " relaxations=" + metrics.getRelaxations();
+                default:
+                    return "ERR unknown command: " + parts[0];
+            }
+        } catch (IllegalArgumentException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    private DagShortestPaths.Result shortest(int s) {
+        return cache.shortest(session.shortestDag(), session.version, s, session.topo, metrics);
+    }
+
+    private int component(String[] parts, int at) {
+        return session.scc.compId[vertex(parts, at)];
+    }
+
+    private int vertex(String[] parts, int at) {
+        if (parts.length <= at)
+            throw new IllegalArgumentException("missing vertex argument");
+        int v;
+        try {
+            v = Integer.parseInt(parts[at]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("not a vertex: " + parts[at]);
+        }
+        if (v < 0 || v >= session.vertexCount())
+            throw new IllegalArgumentException("vertex out of range: " + v);
+        return v;
+    }
+}
@@ -0,0 +1,124 @@
+package graph.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves {@link QueryHandler} lines on stdin/stdout or on a loopback TCP
+ * port. Each connection gets a pooled thread for its lifetime; the session is
+ * shared read-only, so connections never block each other. Once all threads
+ * are taken, further connections are answered with "ERR busy" and closed
+ * instead of waiting unserved. QUIT ends a connection.
+ */
+public final class QueryServer implements AutoCloseable {
+
+    private final QueryHandler handler;
+    private final ExecutorService pool;
+    private final Semaphore slots; // one per pool thread
+    private ServerSocket socket;
+    private Thread acceptor;
+
+    public QueryServer(QueryHandler handler, int threads) {
+        this.handler = handler;
+        this.slots = new Semaphore(threads);
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "query-conn");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Binds to the loopback address (port 0 = any free port) and starts accepting; returns the port. */
+    public int listen(int port) throws IOException {
+        socket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        acceptor = new Thread(this::acceptLoop, "query-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return socket.getLocalPort();
+    }
+
+    /** Blocks until the server socket is closed. */
+    public void awaitClose() throws InterruptedException {
+        if (acceptor != null)
+            acceptor.join();
+    }
+
+    /** Answers lines from in until QUIT or end of input. */
+    public void serve(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank())
+                continue;
+            if ("QUIT".equalsIgnoreCase(line.trim()))
+                break;
+            writer.write(handler.handle(line));
+            writer.write('\n');
+            if (!reader.ready())
+                writer.flush(); // flush once per burst of pipelined requests
+        }
+        writer.flush();
+    }
+
+    private void acceptLoop() {
+        while (!socket.isClosed()) {
+            try {
+                Socket client = socket.accept();
+                client.setTcpNoDelay(true);
+                if (!slots.tryAcquire()) {
+                    refuse(client);
+                    continue;
+                }
+                pool.execute(() -> {
+                    try (client) {
+                        serve(client.getInputStream(), client.getOutputStream());
+                    } catch (IOException e) {
+                        // client went away; nothing to report back
+                    } finally {
+                        slots.release();
+                    }
+                });
+            } catch (SocketException e) {
+                return; // closed
+            } catch (IOException e) {
+                System.err.println("[Server] accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void refuse(Socket client) {
+        try (client) {
+            client.getOutputStream().write("ERR busy\n".getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // client went away; nothing to report back
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (socket != null)
+            socket.close();
+        pool.shutdownNow();
+        try {
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package graph.topo;
+
+import common.metrics.Metrics;
+import graph.model.CsrGraph;
+
+import java.util.Arrays;
+
+/**
+ * Topological order of a DAG maintained under edge insertions and deletions
+ * (Pearce-Kelly). pos[] and order[] are inverse permutations. Inserting u -> v
+ * with pos[u] < pos[v] costs O(1); otherwise a forward search from v (bounded
+ * by pos[u]) and a backward search from u (bounded by pos[v]) collect the
+ * affected region, which is reordered within its own positions. If the
+ * forward search reaches u the edge would close a cycle: it is rejected and
+ * the cycle is kept for {@link #lastCycle()}. Deletions never invalidate an
+ * order, so they only update the adjacency.
+ * Search work is reported as dfsVisits / dfsEdgeScans.
+ */
+public final class DynamicTopoOrder {
+
+    private static final int[] NONE = new int[0];
+
+    private final int n;
+    private final int[] pos; // vertex -> position
+    private final int[] order; // position -> vertex
+    private final int[][] out, in;
+    private final int[] outLen, inLen;
+    private int edges;
+
+    // search scratch, stamped per insertion
+    private final int[] seenF, seenB, parent;
+    private int epoch;
+    private int[] stack = new int[16], fwd = new int[16], bwd = new int[16];
+    private int[] lastCycle = NONE;
+
+    /** n isolated vertices in identity order. */
+    public DynamicTopoOrder(int n) {
+        this.n = n;
+        this.pos = new int[n];
+        this.order = new int[n];
+        for (int v = 0; v < n; v++)
+            pos[v] = order[v] = v;
+        this.out = new int[n][];
+        this.in = new int[n][];
+        this.outLen = new int[n];
+        this.inLen = new int[n];
+        for (int v = 0; v < n; v++) {
+            out[v] = NONE;
+            in[v] = NONE;
+        }
+        this.seenF = new int[n];
+        this.seenB = new int[n];
+        this.parent = new int[n];
+    }
+
+    /** Starts from one batch Kahn pass over dag; throws if dag has a cycle. */
+    public DynamicTopoOrder(CsrGraph dag, Metrics m) {
+        this(dag.n);
+        KahnTopoSort.Result sorted = new KahnTopoSort().sort(dag, m);
+        if (!sorted.isDag())
+            throw new IllegalArgumentException("Graph has a cycle");
+        for (int i = 0; i < n; i++) {
+            order[i] = sorted.order[i];
+            pos[order[i]] = i;
+        }
+        for (int u = 0; u < n; u++) {
+            out[u] = Arrays.copyOfRange(dag.targets, dag.offsets[u], dag.offsets[u + 1]);
+            outLen[u] = out[u].length;
+        }
+        for (int i = 0; i < dag.targets.length; i++)
+            inLen[dag.targets[i]]++;
+        for (int v = 0; v < n; v++) {
+            in[v] = inLen[v] == 0 ? NONE : new int[inLen[v]];
+            inLen[v] = 0;
+        }
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < outLen[u]; i++) {
+                int v = out[u][i];
+                in[v][inLen[v]++] = u;
+            }
+        }
+        edges = dag.targets.length;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int edgeCount() {
+        return edges;
+    }
+
+    /** Current order, position -> vertex. The live array (later insertions update it in place); do not modify. */
+    public int[] order() {
+        return order;
+    }
+
+    public int position(int v) {
+        return pos[v];
+    }
+
+    /**
+     * Inserts u -> v (parallel edges allowed). Returns false and leaves the
+     * graph unchanged if the edge would create a cycle.
+     */
+    public boolean addEdge(int u, int v, Metrics m) {
+        checkVertex(u);
+        checkVertex(v);
+        if (u == v) {
+            lastCycle = new int[] { u };
+            return false;
+        }
+        int lb = pos[v], ub = pos[u];
+        if (lb < ub) {
+            epoch++;
+            int nf = forward(v, u, ub, m);
+            if (nf < 0)
+                return false;
+            int nb = backward(u, lb, m);
+            reorder(nf, nb);
+        }
+        link(u, v);
+        return true;
+    }
+
+    /** Removes one u -> v edge; returns false if there was none. */
+    public boolean removeEdge(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        if (!unlink(out, outLen, u, v))
+            return false;
+        unlink(in, inLen, v, u);
+        edges--;
+        return true;
+    }
+
+    /**
+     * The cycle that made the last rejected insertion u -> v fail, as the
+     * path v .. u (closed by the rejected edge); empty if none was rejected.
+     */
+    public int[] lastCycle() {
+        return lastCycle.clone();
+    }
+
+    /** DFS from v over positions <= ub; -1 if it reaches u (cycle recorded). */
+    private int forward(int v, int u, int ub, Metrics m) {
+        int count = 0, sp = 0;
+        long scans = 0;
+        seenF[v] = epoch;
+        parent[v] = -1;
+        stack[sp++] = v;
+        while (sp > 0) {
+            int x = stack[--sp];
+            fwd = push(fwd, count++, x);
+            for (int i = 0; i < outLen[x]; i++) {
+                scans++;
+                int y = out[x][i];
+                if (seenF[y] == epoch || pos[y] > ub)
+                    continue;
+                seenF[y] = epoch;
+                parent[y] = x;
+                if (y == u) {
+                    recordCycle(u);
+                    m.addDfsVisits(count);
+                    m.addDfsEdgeScans(scans);
+                    return -1;
+                }
+                stack = push(stack, sp++, y);
+            }
+        }
+        m.addDfsVisits(count);
+        m.addDfsEdgeScans(scans);
+        return count;
+    }
+
+    /** Reverse DFS from u over positions >= lb. */
+    private int backward(int u, int lb, Metrics m) {
+        int count = 0, sp = 0;
+        long scans = 0;
+        seenB[u] = epoch;
+        stack[sp++] = u;
+        while (sp > 0) {
+            int x = stack[--sp];
+            bwd = push(bwd, count++, x);
+            for (int i = 0; i < inLen[x]; i++) {
+                scans++;
+                int y = in[x][i];
+                if (seenB[y] == epoch || pos[y] < lb)
+                    continue;
+                seenB[y] = epoch;
+                stack = push(stack, sp++, y);
+            }
+        }
+        m.addDfsVisits(count);
+        m.addDfsEdgeScans(scans);
+        return count;
+    }
+
+    /** Backward set first, then forward set, each keeping its relative order, in the union of their positions. */
+    private void reorder(int nf, int nb) {
+        int[] slots = new int[nf + nb];
+        for (int i = 0; i < nb; i++)
+            slots[i] = pos[bwd[i]];
+        for (int i = 0; i < nf; i++)
+            slots[nb + i] = pos[fwd[i]];
+        Arrays.sort(slots);
+        sortByPos(bwd, nb);
+        sortByPos(fwd, nf);
+        for (int i = 0; i < nb; i++)
+            place(bwd[i], slots[i]);
+        for (int i = 0; i < nf; i++)
+            place(fwd[i], slots[nb + i]);
+    }
+
+    private void place(int v, int p) {
+        pos[v] = p;
+        order[p] = v;
+    }
+
+    private void sortByPos(int[] vs, int k) {
+        long[] keyed = new long[k];
+        for (int i = 0; i < k; i++)
+            keyed[i] = ((long) pos[vs[i]] << 32) | vs[i];
+        Arrays.sort(keyed);
+        for (int i = 0; i < k; i++)
+            vs[i] = (int) keyed[i];
+    }
+
+    private void recordCycle(int u) {
+        int len = 0;
+        for (int x = u; x != -1; x = parent[x])
+            len++;
+        int[] path = new int[len];
+        for (int x = u; x != -1; x = parent[x])
+            path[--len] = x;
+        lastCycle = path;
+    }
+
+    private void link(int u, int v) {
+        out[u] = push(out[u], outLen[u]++, v);
+        in[v] = push(in[v], inLen[v]++, u);
+        edges++;
+    }
+
+    private static boolean unlink(int[][] adj, int[] len, int x, int y) {
+        int[] a = adj[x];
+        for (int i = 0; i < len[x]; i++) {
+            if (a[i] == y) {
+                a[i] = a[--len[x]];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] push(int[] a, int at, int value) {
+        if (at == a.length)
+            a = Arrays.copyOf(a, Math.max(4, at * 2));
+        a[at] = value;
+        return a;
+    }
+
+    private void checkVertex(int v) {
+        if (v < 0 || v >= n)
+            throw new IndexOutOfBoundsException("Vertex " + v + " out of range for n=" + n);
+    }
+}
@@ -1,51 +1,89 @@
 package graph.topo;
 
 import common.metrics.Metrics;
-import graph.model.Edge;
+import graph.model.CsrGraph;
 import graph.model.Graph;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.List;
 
 /**
- * Kahn's algorithm for topological sorting (BFS over in-degrees). Returns a
- * valid order or empty if cyclic.
+ * Kahn's algorithm for topological sorting (BFS over in-degrees).
+ * {@link #sort} is allocation-free apart from indeg[] and the int[] order,
+ * which doubles as the FIFO queue (each vertex is enqueued at most once).
+ * {@link #order} is the boxed form: a valid order or empty if cyclic.
  */
 
 public final class KahnTopoSort {
 
-    public List<Integer> order(Graph dag, Metrics m) {
+    /** Primitive topological order; a cycle is reported by {@link #isDag()}. */
+    public static final class Result {
+        public final int[] order; // full order if acyclic, else only the vertices Kahn could release
+        public final int n;
+
+        public Result(int[] order, int n) {
+            this.order = order;
+            this.n = n;
+        }
+
+        public boolean isDag() {
+            return order.length == n;
+        }
+    }
+
+    public Result sort(Graph dag, Metrics m) {
+        return sort(dag.csr(), m);
+    }
+
+    public Result sort(CsrGraph dag, Metrics m) {
         int n = dag.n;
         int[] indeg = new int[n];
-        for (int u = 0; u < n; u++) {
-            for (Edge e : dag.adj.get(u))
-                indeg[e.v]++;
-        }
+        for (int i = 0; i < dag.targets.length; i++)
+            indeg[dag.targets[i]]++;
 
-        Deque<Integer> q = new ArrayDeque<>();
+        int[] order = new int[n]; // order[head..tail) is the queue
+        int head = 0, tail = 0;
         for (int v = 0; v < n; v++) {
             if (indeg[v] == 0) {
-                q.add(v);
+                order[tail++] = v;
                 m.incKahnPushes();
             }
         }
 
-        List<Integer> topo = new ArrayList<>(n);
-        while (!q.isEmpty()) {
-            int u = q.removeFirst();
+        while (head < tail) {
+            int u = order[head++];
             m.incKahnPops();
-            topo.add(u);
-            for (Edge e : dag.adj.get(u)) {
-                if (--indeg[e.v] == 0) {
-                    q.addLast(e.v);
+            for (int i = dag.offsets[u]; i < dag.offsets[u + 1]; i++) {
+                int v = dag.targets[i];
+                if (--indeg[v] == 0) {
+                    order[tail++] = v;
                     m.incKahnPushes();
                 }
             }
         }
-        if (topo.size() != n)
+        return new Result(tail == n ? order : Arrays.copyOf(order, tail), n);
+    }
+
+    public List<Integer> order(Graph dag, Metrics m) {
+        return order(dag.csr(), m);
+    }
+
+    public List<Integer> order(CsrGraph dag, Metrics m) {
+        Result r = sort(dag, m);
+        if (!r.isDag())
             return List.of(); // not a DAG
+        List<Integer> topo = new ArrayList<>(r.order.length);
+        for (int v : r.order)
+            topo.add(v);
         return topo;
     }
+
+    /** Unboxes a List order once, for the int[] overloads of the DAG-SP classes. */
+    public static int[] toArray(List<Integer> topo) {
+        int[] out = new int[topo.size()];
+        for (int i = 0; i < out.length; i++)
+            out[i] = topo.get(i);
+        return out;
+    }
 }
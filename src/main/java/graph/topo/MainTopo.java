@@ -2,17 +2,18 @@ package graph.topo;
 
 import common.metrics.Metrics;
 import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
 import graph.model.Graph;
 import graph.scc.CondensationGraphBuilder;
+import graph.scc.SccAlgorithm;
 import graph.scc.TarjanSCC;
 
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * CLI:
- * java graph.topo.MainTopo --input data/your.json
+ * java graph.topo.MainTopo --input data/your.json [--scc tarjan|parallel|pearce|kosaraju] [--levels] [--dynamic]
  *
  * Prints:
  * - SCC summary
@@ -21,66 +22,114 @@ import java.util.List;
  * - Derived original task order (by component order, stable within each SCC
  * list)
  * - Metrics
+ * - With --levels: parallel level-synchronous sort and the component levels
+ * (components in one level are independent)
+ * - With --dynamic: the component order built online, one condensation edge
+ * at a time, by DynamicTopoOrder instead of the batch sort
  */
 public final class MainTopo {
     public static void main(String[] args) {
         if (args.length < 2 || !"--input".equals(args[0])) {
-            System.err.println("Usage: java graph.topo.MainTopo --input data/your.json");
+            System.err.println("Usage: java graph.topo.MainTopo --input data/your.json [--scc tarjan|parallel|pearce|kosaraju] [--levels] [--dynamic]");
             System.exit(1);
         }
         Path input = Path.of(args[1]);
-        Graph g = Graph.fromJson(input);
+        String engine = "tarjan";
+        boolean levels = false;
+        boolean dynamic = false;
+        for (int i = 2; i < args.length; i++) {
+            if ("--scc".equals(args[i]) && i + 1 < args.length)
+                engine = args[++i];
+            else if ("--levels".equals(args[i]))
+                levels = true;
+            else if ("--dynamic".equals(args[i]))
+                dynamic = true;
+        }
+        Graph g = Graph.load(input);
 
         Metrics m = new SimpleMetrics();
 
         // 1) SCC + condensation
-        TarjanSCC tarjan = new TarjanSCC();
+        SccAlgorithm sccAlgo = SccAlgorithm.named(engine);
         m.reset();
         m.start();
-        TarjanSCC.Result sccRes = tarjan.compute(g, m);
+        TarjanSCC.Result sccRes = sccAlgo.compute(g, m);
         m.stop();
-        System.out.println("[SCC] count=" + sccRes.components.size()
+        System.out.println("[SCC] count=" + sccRes.count()
                 + " dfsVisits=" + m.getDfsVisits()
                 + " dfsEdgeScans=" + m.getDfsEdgeScans()
                 + " time(ns)=" + m.elapsedNanos());
 
         CondensationGraphBuilder builder = new CondensationGraphBuilder();
-        Graph dag = builder.build(g, sccRes.components.size(), sccRes.compId);
+        Graph dag = builder.build(g, sccRes.count(), sccRes.compId);
 
-        int dagEdges = 0;
-        for (int u = 0; u < dag.n; u++)
-            dagEdges += dag.adj.get(u).size();
+        int dagEdges = dag.edgeCount();
         System.out.println("[Condensation DAG] nodes=" + dag.n + " edges=" + dagEdges);
 
         // 2) Kahn topological sort on condensation DAG
         KahnTopoSort kahn = new KahnTopoSort();
         m.reset();
         m.start();
-        List<Integer> compTopo = kahn.order(dag, m);
+        KahnTopoSort.Result sorted = kahn.sort(dag, m);
         m.stop();
-        if (compTopo.isEmpty()) {
+        if (!sorted.isDag()) {
             System.out.println("[Topo] graph is not a DAG (unexpected for condensation)");
             System.exit(2);
         }
-        System.out.println("[Topo] component order: " + compTopo);
+        int[] compTopo = sorted.order;
+        System.out.println("[Topo] component order: " + Arrays.toString(compTopo));
         System.out.println("[Topo] metrics: pushes=" + m.getKahnPushes()
                 + " pops=" + m.getKahnPops()
                 + " time(ns)=" + m.elapsedNanos());
 
         // 3) Derived original order: expand components in topo order
-        List<Integer> derived = deriveOriginalOrder(compTopo, sccRes.components);
-        System.out.println("[Derived original task order] " + derived);
+        int[] derived = deriveOriginalOrder(compTopo, sccRes);
+        System.out.println("[Derived original task order] " + Arrays.toString(derived));
+
+        // 4) Optional: parallel level-synchronous sort, one line per level
+        if (levels) {
+            ParallelTopoSort par = new ParallelTopoSort();
+            m.reset();
+            m.start();
+            ParallelTopoSort.Result lv = par.sort(dag, m);
+            m.stop();
+            System.out.println("[Levels] count=" + lv.levels() + " time(ns)=" + m.elapsedNanos());
+            for (int l = 0; l < lv.levels(); l++) {
+                int[] members = Arrays.copyOfRange(lv.order, lv.levelStart[l], lv.levelStart[l + 1]);
+                System.out.println("  L" + l + " -> " + Arrays.toString(members));
+            }
+        }
+
+        // 5) Optional: online order, maintained edge by edge
+        if (dynamic) {
+            CsrGraph c = dag.csr();
+            DynamicTopoOrder dyn = new DynamicTopoOrder(c.n);
+            m.reset();
+            m.start();
+            for (int u = 0; u < c.n; u++) {
+                for (int i = c.offsets[u]; i < c.offsets[u + 1]; i++)
+                    dyn.addEdge(u, c.targets[i], m);
+            }
+            m.stop();
+            System.out.println("[Dynamic] component order: " + Arrays.toString(dyn.order()));
+            System.out.println("[Dynamic] metrics: searchVisits=" + m.getDfsVisits()
+                    + " searchEdgeScans=" + m.getDfsEdgeScans()
+                    + " time(ns)=" + m.elapsedNanos());
+        }
     }
 
     /**
-     * Expand components in topological component order.
-     * Inside each SCC we keep the component list order (stable and deterministic
-     * from Tarjan).
+     * Expand components in topological component order: one array copy per
+     * component out of the flat members array. Inside each SCC we keep the
+     * member order of the SCC result (stable and deterministic from Tarjan).
      */
-    static List<Integer> deriveOriginalOrder(List<Integer> compTopo, List<List<Integer>> components) {
-        List<Integer> out = new ArrayList<>();
+    static int[] deriveOriginalOrder(int[] compTopo, TarjanSCC.Result scc) {
+        int[] out = new int[scc.members.length];
+        int pos = 0;
         for (int c : compTopo) {
-            out.addAll(components.get(c));
+            int size = scc.compSize(c);
+            System.arraycopy(scc.members, scc.offsets[c], out, pos, size);
+            pos += size;
         }
         return out;
     }
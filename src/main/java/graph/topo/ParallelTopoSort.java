@@ -0,0 +1,134 @@
+package graph.topo;
+
+import common.concurrent.ParallelFor;
+import common.metrics.Metrics;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Level-synchronous topological sort: every vertex whose in-degree is zero is
+ * in the current frontier, and the whole frontier is expanded concurrently
+ * with atomic in-degree decrements. level[v] is the length (in edges) of the
+ * longest path ending at v, so vertices sharing a level are independent and
+ * can be scheduled in parallel. Each level is sorted by vertex id, which makes
+ * the order deterministic.
+ */
+public final class ParallelTopoSort {
+
+    private static final VarHandle INDEG = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int GRAIN = 1024;
+
+    /** Level-grouped order: level l is order[levelStart[l] .. levelStart[l + 1]). */
+    public static final class Result {
+        public final int[] order; // all vertices if acyclic, else those released before the cycle
+        public final int[] level; // level[v], or -1 for vertices on or behind a cycle
+        public final int[] levelStart;
+        public final int n;
+
+        public Result(int[] order, int[] level, int[] levelStart, int n) {
+            this.order = order;
+            this.level = level;
+            this.levelStart = levelStart;
+            this.n = n;
+        }
+
+        public boolean isDag() {
+            return order.length == n;
+        }
+
+        public int levels() {
+            return levelStart.length - 1;
+        }
+    }
+
+    private final ForkJoinPool pool;
+
+    public ParallelTopoSort() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelTopoSort(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public Result sort(Graph dag, Metrics m) {
+        return sort(dag.csr(), m);
+    }
+
+    public Result sort(CsrGraph dag, Metrics m) {
+        int n = dag.n;
+        int[] indeg = new int[n];
+        int[] targets = dag.targets;
+        pool.invoke(new ParallelFor(0, targets.length, 8 * GRAIN, (lo, hi) -> {
+            for (int i = lo; i < hi; i++)
+                INDEG.getAndAdd(indeg, targets[i], 1);
+        }));
+
+        int[] order = new int[n];
+        int[] level = new int[n];
+        Arrays.fill(level, -1);
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (indeg[v] == 0) {
+                order[tail++] = v;
+                level[v] = 0;
+            }
+        }
+
+        int[] starts = new int[16];
+        int levels = 0, head = 0;
+        while (head < tail) {
+            if (levels + 1 >= starts.length)
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            starts[levels++] = head;
+            int next = levels; // level number of vertices released now
+            int from = head, to = tail;
+            if (to - from >= 2 * GRAIN) {
+                AtomicInteger out = new AtomicInteger(to);
+                pool.invoke(new ParallelFor(from, to, GRAIN, (lo, hi) -> {
+                    int[] local = new int[64];
+                    int k = 0;
+                    for (int i = lo; i < hi; i++) {
+                        int u = order[i];
+                        for (int e = dag.offsets[u]; e < dag.offsets[u + 1]; e++) {
+                            int v = targets[e];
+                            if ((int) INDEG.getAndAdd(indeg, v, -1) == 1) {
+                                level[v] = next;
+                                if (k == local.length)
+                                    local = Arrays.copyOf(local, k * 2);
+                                local[k++] = v;
+                            }
+                        }
+                    }
+                    System.arraycopy(local, 0, order, out.getAndAdd(k), k);
+                }));
+                tail = out.get();
+                Arrays.parallelSort(order, to, tail);
+            } else {
+                for (int i = from; i < to; i++) {
+                    int u = order[i];
+                    for (int e = dag.offsets[u]; e < dag.offsets[u + 1]; e++) {
+                        int v = targets[e];
+                        if (--indeg[v] == 0) {
+                            level[v] = next;
+                            order[tail++] = v;
+                        }
+                    }
+                }
+                Arrays.sort(order, to, tail);
+            }
+            head = to;
+        }
+        starts[levels] = tail;
+        m.addKahnPushes(tail);
+        m.addKahnPops(tail);
+        return new Result(tail == n ? order : Arrays.copyOf(order, tail), level,
+                Arrays.copyOf(starts, levels + 1), n);
+    }
+}
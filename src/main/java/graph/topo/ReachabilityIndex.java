@@ -0,0 +1,276 @@
+package graph.topo;
+
+import common.metrics.Metrics;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import graph.scc.CondensationGraphBuilder;
+import graph.scc.TarjanSCC;
+
+import java.util.Arrays;
+
+/**
+ * Reachability labels on a DAG (interval labeling over a spanning forest).
+ * Every vertex gets a post-order number from a DFS forest; a vertex then
+ * stores the merged, sorted intervals of post numbers it can reach: its own
+ * subtree interval plus the intervals of all its successors, folded in reverse
+ * topological order. u reaches v iff post[v] lies in one of u's intervals,
+ * which is one binary search. On tree-like DAGs most vertices keep a single
+ * interval; cross edges add the exceptions.
+ * Wide DAGs can need many intervals per vertex, so lists are capped at
+ * maxIntervals. A vertex over the cap (and so every ancestor of it) keeps only
+ * its hull [min reachable post, post[v]], and queries from it run a DFS that
+ * skips successors whose rank or hull rules the target out and stops at the
+ * first exactly labelled successor. Negative answers outside the hull stay O(1).
+ * Built over the condensation DAG, queries on original vertices go through
+ * compId. Build work is reported as dfsVisits / dfsEdgeScans. Thread-safe
+ * after construction (fallback scratch is per thread).
+ */
+public final class ReachabilityIndex {
+
+    public static final int DEFAULT_MAX_INTERVALS = 64;
+
+    private final CsrGraph dag; // kept for the fallback search
+    private final int[] compId; // original vertex -> DAG vertex
+    private final int[] rank; // topological position, for the cheap negative test
+    private final int[] post;
+    private final int[] hullLo; // every post reachable from v lies in [hullLo[v], post[v]]
+    private final int[] from, to; // intervals of v: lo/hi[from[v] .. to[v]); empty if over the cap
+    private final int[] lo, hi;
+    private final int overflow;
+    private final ThreadLocal<Scratch> scratch;
+
+    /** Index over dag itself (compId is the identity). */
+    public ReachabilityIndex(CsrGraph dag, int[] topo, Metrics m) {
+        this(dag, topo, null, DEFAULT_MAX_INTERVALS, m);
+    }
+
+    /**
+     * Index over a condensation DAG; compId maps original vertices to DAG
+     * vertices, or is null when queries use DAG vertices directly.
+     */
+    public ReachabilityIndex(CsrGraph dag, int[] topo, int[] compId, Metrics m) {
+        this(dag, topo, compId, DEFAULT_MAX_INTERVALS, m);
+    }
+
+    public ReachabilityIndex(CsrGraph dag, int[] topo, int[] compId, int maxIntervals, Metrics m) {
+        int n = dag.n;
+        if (topo.length != n)
+            throw new IllegalArgumentException("Topological order must cover all " + n + " vertices");
+        if (maxIntervals < 1)
+            throw new IllegalArgumentException("maxIntervals must be positive: " + maxIntervals);
+        this.dag = dag;
+        this.compId = compId;
+        this.rank = new int[n];
+        for (int i = 0; i < n; i++)
+            rank[topo[i]] = i;
+        this.post = new int[n];
+        this.hullLo = new int[n];
+        spanningForest(dag, topo, hullLo, post);
+        m.addDfsVisits(n);
+        m.addDfsEdgeScans(dag.edgeCount());
+
+        // successors come first in reverse topological order, so their labels are final
+        this.from = new int[n];
+        this.to = new int[n];
+        int[] los = new int[Math.max(16, n)], his = new int[los.length];
+        int size = 0, over = 0;
+        long[] scratch = new long[16];
+        for (int i = n - 1; i >= 0; i--) {
+            int v = topo[i];
+            int treeLo = hullLo[v], k = 0;
+            boolean exact = true;
+            scratch[k++] = pack(treeLo, post[v]);
+            for (int e = dag.offsets[v]; e < dag.offsets[v + 1]; e++) {
+                int w = dag.targets[e];
+                hullLo[v] = Math.min(hullLo[v], hullLo[w]);
+                if (!exact)
+                    continue;
+                if (from[w] == to[w]) {
+                    exact = false; // w only has a hull, so v cannot be exact either
+                    continue;
+                }
+                int need = k + to[w] - from[w];
+                if (need > scratch.length)
+                    scratch = Arrays.copyOf(scratch, Math.max(need, scratch.length * 2));
+                for (int j = from[w]; j < to[w]; j++) {
+                    if (los[j] < treeLo || his[j] > post[v]) // skip what v's subtree already covers
+                        scratch[k++] = pack(los[j], his[j]);
+                }
+            }
+            from[v] = to[v] = size;
+            if (!exact) {
+                over++;
+                continue;
+            }
+            Arrays.sort(scratch, 0, k);
+
+            int merged = 0;
+            int room = size + Math.min(k, maxIntervals); // merging never adds intervals
+            if (room > los.length) {
+                los = Arrays.copyOf(los, Math.max(room, los.length * 2));
+                his = Arrays.copyOf(his, los.length);
+            }
+            int curLo = (int) (scratch[0] >>> 32), curHi = (int) scratch[0];
+            for (int j = 1; j < k && merged < maxIntervals; j++) {
+                int a = (int) (scratch[j] >>> 32), b = (int) scratch[j];
+                if (a <= curHi + 1) {
+                    curHi = Math.max(curHi, b);
+                } else {
+                    los[size + merged] = curLo;
+                    his[size + merged++] = curHi;
+                    curLo = a;
+                    curHi = b;
+                }
+            }
+            if (merged < maxIntervals) {
+                los[size + merged] = curLo;
+                his[size + merged++] = curHi;
+                size += merged;
+                to[v] = size;
+            } else {
+                over++; // too many intervals: drop them and keep the hull
+            }
+        }
+        this.lo = Arrays.copyOf(los, size);
+        this.hi = Arrays.copyOf(his, size);
+        this.overflow = over;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(n));
+    }
+
+    /** SCCs + condensation + topological order of g, then the index over it. */
+    public static ReachabilityIndex of(Graph g, TarjanSCC.Result scc, Metrics m) {
+        CsrGraph dag = new CondensationGraphBuilder().build(g.csr(), scc.count(), scc.compId);
+        KahnTopoSort.Result sorted = new KahnTopoSort().sort(dag, m);
+        if (!sorted.isDag())
+            throw new IllegalStateException("Condensation graph not a DAG (should not happen)");
+        return new ReachabilityIndex(dag, sorted.order, scc.compId, m);
+    }
+
+    /** Whether original vertex u reaches v (every vertex reaches itself). */
+    public boolean reachable(int u, int v) {
+        return compId == null ? componentReachable(u, v) : componentReachable(compId[u], compId[v]);
+    }
+
+    /** Whether DAG vertex cu reaches cv. */
+    public boolean componentReachable(int cu, int cv) {
+        if (cu == cv)
+            return true;
+        if (rank[cu] > rank[cv])
+            return false;
+        int p = post[cv];
+        if (p < hullLo[cu] || p > post[cu])
+            return false;
+        return from[cu] < to[cu] ? inIntervals(cu, p) : search(cu, cv, p);
+    }
+
+    private boolean inIntervals(int u, int p) {
+        // last interval of u starting at or before p
+        int a = from[u], b = to[u] - 1;
+        while (a < b) {
+            int mid = (a + b + 1) >>> 1;
+            if (lo[mid] <= p)
+                a = mid;
+            else
+                b = mid - 1;
+        }
+        return lo[a] <= p && p <= hi[a];
+    }
+
+    /** DFS from an over-the-cap vertex, pruned by rank and hull; exact successors answer directly. */
+    private boolean search(int cu, int cv, int p) {
+        Scratch s = scratch.get();
+        int epoch = s.next();
+        int sp = 0;
+        s.stack[sp++] = cu;
+        while (sp > 0) {
+            int u = s.stack[--sp];
+            for (int e = dag.offsets[u]; e < dag.offsets[u + 1]; e++) {
+                int w = dag.targets[e];
+                if (w == cv)
+                    return true;
+                if (s.seen[w] == epoch || rank[w] > rank[cv] || p < hullLo[w] || p > post[w])
+                    continue;
+                s.seen[w] = epoch;
+                if (from[w] < to[w]) {
+                    if (inIntervals(w, p))
+                        return true;
+                } else {
+                    s.stack[sp++] = w;
+                }
+            }
+        }
+        return false;
+    }
+
+    public int vertexCount() {
+        return post.length;
+    }
+
+    public int intervalCount() {
+        return lo.length;
+    }
+
+    /** DAG vertices over the interval cap, answered by the pruned search. */
+    public int overflowCount() {
+        return overflow;
+    }
+
+    /** Approximate heap footprint of the labels (the DAG and compId are shared, not counted). */
+    public long sizeInBytes() {
+        return 4L * (rank.length + post.length + hullLo.length + from.length + to.length + lo.length + hi.length);
+    }
+
+    /** Iterative DFS forest, roots taken in topological order; subtree of v is posts [treeLo[v], post[v]]. */
+    private static void spanningForest(CsrGraph dag, int[] topo, int[] treeLo, int[] post) {
+        int n = dag.n;
+        boolean[] seen = new boolean[n];
+        int[] stack = new int[n], cursor = new int[n];
+        int next = 0;
+        for (int root : topo) {
+            if (seen[root])
+                continue;
+            int sp = 0;
+            seen[root] = true;
+            treeLo[root] = next;
+            stack[sp] = root;
+            cursor[sp++] = dag.offsets[root];
+            while (sp > 0) {
+                int u = stack[sp - 1];
+                if (cursor[sp - 1] < dag.offsets[u + 1]) {
+                    int w = dag.targets[cursor[sp - 1]++];
+                    if (!seen[w]) {
+                        seen[w] = true;
+                        treeLo[w] = next;
+                        stack[sp] = w;
+                        cursor[sp++] = dag.offsets[w];
+                    }
+                } else {
+                    post[u] = next++;
+                    sp--;
+                }
+            }
+        }
+    }
+
+    private static long pack(int lo, int hi) {
+        return ((long) lo << 32) | (hi & 0xFFFFFFFFL);
+    }
+
+    private static final class Scratch {
+        final int[] seen, stack;
+        int epoch;
+
+        Scratch(int n) {
+            seen = new int[n];
+            stack = new int[n];
+        }
+
+        int next() {
+            if (++epoch == 0) { // wrapped: stale stamps could collide, so start over
+                Arrays.fill(seen, 0);
+                epoch = 1;
+            }
+            return epoch;
+        }
+    }
+}
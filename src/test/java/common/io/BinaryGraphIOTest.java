@@ -0,0 +1,84 @@
+package common.io;
+
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Binary CSR format round-trips, rejects corrupt sections, and Graph.load dispatches on extension. */
+public class BinaryGraphIOTest {
+
+    @Test
+    void roundTripsDataset(@TempDir Path dir) {
+        Path json = Path.of("data/medium-2-cyclic-sparse.json");
+        Path bin = dir.resolve("g.bin");
+        BinaryGraphIO.convert(json, bin);
+
+        CsrGraph expected = JsonLoader.loadCsr(json);
+        CsrGraph actual = Graph.load(bin).csr();
+        assertEquals(expected.n, actual.n);
+        assertEquals(expected.directed, actual.directed);
+        assertEquals(expected.source, actual.source);
+        assertArrayEquals(expected.offsets, actual.offsets);
+        assertArrayEquals(expected.targets, actual.targets);
+        assertArrayEquals(expected.weights, actual.weights);
+    }
+
+    @Test
+    void keepsMissingSourceAndEmptyEdgeSet(@TempDir Path dir) {
+        Path bin = dir.resolve("empty.bin");
+        BinaryGraphIO.write(new CsrGraph.Builder(3).directed(false).build(), bin);
+        CsrGraph g = BinaryGraphIO.read(bin);
+        assertEquals(3, g.n);
+        assertFalse(g.directed);
+        assertNull(g.source);
+        assertEquals(0, g.edgeCount());
+    }
+
+    @Test
+    void rejectsForeignFiles(@TempDir Path dir) throws Exception {
+        Path bin = dir.resolve("junk.bin");
+        Files.write(bin, new byte[64]);
+        assertThrows(RuntimeException.class, () -> BinaryGraphIO.read(bin));
+    }
+
+    @Test
+    void rejectsCorruptSections(@TempDir Path dir) throws Exception {
+        CsrGraph g = new CsrGraph.Builder(3).addEdge(0, 1, 1).addEdge(1, 2, 1).addEdge(2, 0, 1).build();
+        long offsetsAt = 4 * 6, targetsAt = offsetsAt + 4 * (g.n + 1);
+
+        Path decreasing = dir.resolve("decreasing.bin");
+        BinaryGraphIO.write(g, decreasing);
+        patch(decreasing, offsetsAt + 4, 3); // offsets 0, 3, 2, 3
+        RuntimeException e = assertThrows(RuntimeException.class, () -> BinaryGraphIO.read(decreasing));
+        assertTrue(e.getCause().getMessage().startsWith("Corrupt binary graph"));
+
+        Path target = dir.resolve("target.bin");
+        BinaryGraphIO.write(g, target);
+        patch(target, targetsAt + 4, 7);
+        e = assertThrows(RuntimeException.class, () -> BinaryGraphIO.read(target));
+        assertTrue(e.getCause().getMessage().contains("out of range for n=3"));
+
+        Path start = dir.resolve("start.bin");
+        BinaryGraphIO.write(g, start);
+        patch(start, offsetsAt, 1);
+        assertThrows(RuntimeException.class, () -> BinaryGraphIO.read(start));
+    }
+
+    private static void patch(Path file, long pos, int value) throws Exception {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value);
+            b.flip();
+            ch.write(b, pos);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package common.io;
+
+import common.metrics.SimpleMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Spilled runs merge back into sorted, collapsed (u, v, min, max) pairs, in one pass or several. */
+public class ExternalPairSorterTest {
+
+    @Test
+    void spillsAndMergesLikeATreeMap(@TempDir Path dir) throws IOException {
+        ExternalPairSorter s = sortAndCheck(dir, 1024);
+        assertEquals(0, s.mergePasses());
+    }
+
+    @Test
+    void fanInLimitMergesInSeveralPasses(@TempDir Path dir) throws IOException {
+        ExternalPairSorter s = sortAndCheck(dir, 2);
+        assertTrue(s.mergePasses() >= s.runs() - 2, "groups of two merged until two runs remain");
+    }
+
+    private static ExternalPairSorter sortAndCheck(Path dir, int fanIn) throws IOException {
+        Random r = new Random(5);
+        TreeMap<Long, int[]> expected = new TreeMap<>();
+        SimpleMetrics m = new SimpleMetrics();
+        List<long[]> actual = new ArrayList<>();
+        ExternalPairSorter sorter = new ExternalPairSorter(dir, 64, fanIn, m);
+        try (ExternalPairSorter s = sorter) {
+            for (int i = 0; i < 5_000; i++) {
+                int u = r.nextInt(50), v = r.nextInt(50), w = r.nextInt(100) - 50;
+                s.add(u, v, w);
+                expected.merge(((long) u << 32) | v, new int[] { w, w },
+                        (a, b) -> new int[] { Math.min(a[0], b[0]), Math.max(a[1], b[1]) });
+            }
+            s.finish((u, v, min, max) -> actual.add(new long[] { ((long) u << 32) | v, min, max }));
+            assertTrue(s.runs() > 1, "expected spilled runs");
+        }
+        assertEquals(expected.size(), actual.size());
+        int i = 0;
+        for (Map.Entry<Long, int[]> e : expected.entrySet()) {
+            long[] got = actual.get(i++);
+            assertEquals(e.getKey(), got[0]);
+            assertEquals(e.getValue()[0], got[1]);
+            assertEquals(e.getValue()[1], got[2]);
+        }
+        assertTrue(m.getBytesWritten() > 0);
+        assertEquals(m.getBytesWritten(), m.getBytesRead());
+        try (var files = Files.list(dir)) {
+            assertEquals(0, files.count(), "runs are deleted on close");
+        }
+        return sorter;
+    }
+}
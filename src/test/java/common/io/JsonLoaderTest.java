@@ -0,0 +1,47 @@
+package common.io;
+
+import graph.model.CsrGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Streaming loader: field order independence, defaults and unknown fields. */
+public class JsonLoaderTest {
+
+    @Test
+    void loadsBundledDataset() {
+        CsrGraph g = JsonLoader.loadCsr(Path.of("data/small-1-dag-sparse.json"));
+        assertEquals(7, g.n);
+        assertTrue(g.directed);
+        assertEquals(3, g.source);
+        assertTrue(g.edgeCount() > 0);
+        assertEquals(2, g.targets[g.offsets[0]]);
+        assertEquals(5, g.weights[g.offsets[0]]);
+    }
+
+    @Test
+    void edgesBeforeVertexCountAndExtraFields(@TempDir Path dir) throws Exception {
+        Path f = dir.resolve("g.json");
+        Files.writeString(f, "{\"weight_model\":\"edge\",\"meta\":{\"x\":[1,2]},"
+                + "\"edges\":[{\"u\":1,\"v\":0,\"w\":4,\"tag\":\"a\"},{\"w\":2,\"v\":2,\"u\":1}],"
+                + "\"n\":3,\"directed\":null}");
+        CsrGraph g = JsonLoader.loadCsr(f);
+        assertEquals(3, g.n);
+        assertTrue(g.directed);
+        assertNull(g.source);
+        assertArrayEquals(new int[] { 0, 0, 2, 2 }, g.offsets);
+        assertArrayEquals(new int[] { 0, 2 }, g.targets);
+        assertArrayEquals(new int[] { 4, 2 }, g.weights);
+    }
+
+    @Test
+    void malformedInputIsReported(@TempDir Path dir) throws Exception {
+        Path f = dir.resolve("bad.json");
+        Files.writeString(f, "{\"n\":2,\"edges\":[1,2]}");
+        assertThrows(RuntimeException.class, () -> JsonLoader.loadCsr(f));
+    }
+}
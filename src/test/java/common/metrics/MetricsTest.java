@@ -0,0 +1,75 @@
+package common.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Phase timers, the no-op sink, and concurrent counting without lost updates. */
+public class MetricsTest {
+
+    @Test
+    void phasesAccumulateInFirstStartedOrder() {
+        for (Metrics m : List.of(new SimpleMetrics(), new ConcurrentMetrics())) {
+            m.startPhase("b");
+            m.stopPhase("b");
+            m.startPhase("a");
+            m.stopPhase("a");
+            long first = m.phaseNanos("b");
+            m.startPhase("b");
+            m.stopPhase("b");
+            assertTrue(m.phaseNanos("b") >= first);
+            assertEquals(List.of("b", "a"), List.copyOf(m.phases().keySet()));
+            assertEquals(0L, m.phaseNanos("missing"));
+            assertThrows(IllegalStateException.class, () -> m.stopPhase("a"));
+            m.reset();
+            assertTrue(m.phases().isEmpty());
+        }
+    }
+
+    @Test
+    void noOpRecordsNothing() {
+        Metrics m = NoOpMetrics.INSTANCE;
+        m.incRelaxations();
+        m.addDfsVisits(5);
+        m.startPhase("x");
+        m.stopPhase("x");
+        assertEquals(0L, m.getRelaxations());
+        assertEquals(0L, m.getDfsVisits());
+        assertTrue(m.phases().isEmpty());
+    }
+
+    @Test
+    void concurrentCountsEveryIncrement() throws Exception {
+        ConcurrentMetrics m = new ConcurrentMetrics();
+        int threads = 8, perThread = 100_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] done = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                done[t] = pool.submit(() -> {
+                    m.startPhase("work");
+                    for (int i = 0; i < perThread; i++) {
+                        m.incRelaxations();
+                        m.incKahnPops();
+                    }
+                    m.addDfsEdgeScans(perThread);
+                    m.stopPhase("work");
+                });
+            }
+            for (Future<?> f : done)
+                f.get();
+        } finally {
+            pool.shutdown();
+        }
+        long total = (long) threads * perThread;
+        assertEquals(total, m.getRelaxations());
+        assertEquals(total, m.getKahnPops());
+        assertEquals(total, m.getDfsEdgeScans());
+        assertEquals(List.of("work"), List.copyOf(m.phases().keySet()));
+    }
+}
@@ -0,0 +1,64 @@
+package graph.dagsp;
+
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import graph.model.TestGraphs;
+import graph.topo.KahnTopoSort;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Textbook schedule, plus agreement with repeated DagLongestPath runs. */
+public class CriticalPathTest {
+
+    @Test
+    void diamondSchedule() {
+        // 0 -3-> 1 -4-> 3 -1-> 4, and 0 -2-> 2 -2-> 3: the lower branch has 3 units of slack
+        CsrGraph dag = new CsrGraph.Builder(5)
+                .addEdge(0, 1, 3).addEdge(0, 2, 2).addEdge(1, 3, 4).addEdge(2, 3, 2).addEdge(3, 4, 1)
+                .build();
+        int[] topo = new KahnTopoSort().sort(dag, new SimpleMetrics()).order;
+        CriticalPath.Result r = new CriticalPath().analyze(dag, topo, new SimpleMetrics());
+
+        assertEquals(8, r.length);
+        assertArrayEquals(new int[] { 0, 3, 2, 7, 8 }, r.earliest);
+        assertArrayEquals(new int[] { 0, 3, 5, 7, 8 }, r.latest);
+        assertArrayEquals(new int[] { 0, 0, 3, 0, 0 }, r.slack);
+        assertArrayEquals(new int[] { 0, 1, 3, 4 }, r.criticalVertices);
+        assertEquals(3, r.criticalEdges.length);
+        for (int e : r.criticalEdges) {
+            int u = CriticalPath.edgeSource(dag, e);
+            assertEquals(0, r.slack[u]);
+            assertEquals(0, r.slack[dag.targets[e]]);
+            assertNotEquals(2, u, "edges out of the slack branch are not critical");
+        }
+    }
+
+    @Test
+    void earliestStartIsLongestPathFromAnySource() {
+        Random rnd = new Random(19);
+        for (int round = 0; round < 20; round++) {
+            int n = 1 + rnd.nextInt(60);
+            CsrGraph dag = TestGraphs.randomDag(rnd, n, 2 * n, 9);
+            int[] topo = new KahnTopoSort().sort(dag, new SimpleMetrics()).order;
+            CriticalPath.Result r = new CriticalPath().analyze(dag, topo, new SimpleMetrics());
+
+            int[] expected = new int[n];
+            int length = 0;
+            for (int s = 0; s < n; s++) {
+                int[] best = new DagLongestPath().longest(dag, s, topo).best;
+                for (int v = 0; v < n; v++)
+                    expected[v] = Math.max(expected[v], best[v]);
+            }
+            for (int v = 0; v < n; v++)
+                length = Math.max(length, expected[v]);
+            assertArrayEquals(expected, r.earliest);
+            assertEquals(length, r.length);
+            for (int v = 0; v < n; v++)
+                assertTrue(r.slack[v] >= 0);
+            assertTrue(r.criticalVertices.length >= 1);
+        }
+    }
+}
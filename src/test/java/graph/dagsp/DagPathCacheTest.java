@@ -0,0 +1,136 @@
+package graph.dagsp;
+
+import common.metrics.Metrics;
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import graph.topo.KahnTopoSort;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Hits, LRU eviction by size, invalidation on graph mutation, and graphs sharing one cache. */
+public class DagPathCacheTest {
+
+    private static Graph chain(int n) {
+        Graph g = new Graph(n, true);
+        for (int i = 0; i + 1 < n; i++)
+            g.addEdge(i, i + 1, 2);
+        return g;
+    }
+
+    @Test
+    void repeatedSourceHitsAndModesAreSeparate() {
+        Graph g = chain(10);
+        int[] topo = new KahnTopoSort().sort(g, new SimpleMetrics()).order;
+        DagPathCache cache = new DagPathCache(1 << 20);
+        Metrics m = new SimpleMetrics();
+
+        DagShortestPaths.Result first = cache.shortest(g, 0, topo, m);
+        DagShortestPaths.Result again = cache.shortest(g, 0, topo, m);
+        assertSame(first.dist, again.dist);
+        assertEquals(18, again.dist[9]);
+        assertEquals(18, cache.longest(g, 0, topo, m).best[9]);
+        assertEquals(1, m.getCacheHits());
+        assertEquals(2, m.getCacheMisses());
+        assertEquals(2, cache.size());
+        assertEquals(2 * (96 + 4 * 20), cache.bytes());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenOverBudget() {
+        Graph g = chain(100);
+        int[] topo = new KahnTopoSort().sort(g, new SimpleMetrics()).order;
+        long entry = 96 + 4 * 200;
+        DagPathCache cache = new DagPathCache(2 * entry);
+        Metrics m = new SimpleMetrics();
+
+        cache.shortest(g, 0, topo, m);
+        cache.shortest(g, 1, topo, m);
+        cache.shortest(g, 0, topo, m); // 0 is now most recent
+        cache.shortest(g, 2, topo, m); // evicts 1
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+        assertTrue(cache.bytes() <= 2 * entry);
+
+        m.reset();
+        cache.shortest(g, 0, topo, m);
+        cache.shortest(g, 1, topo, m);
+        assertEquals(1, m.getCacheHits());
+        assertEquals(1, m.getCacheMisses());
+    }
+
+    @Test
+    void mutationInvalidates() {
+        Graph g = chain(5);
+        int[] topo = new KahnTopoSort().sort(g, new SimpleMetrics()).order;
+        DagPathCache cache = new DagPathCache(1 << 20);
+        Metrics m = new SimpleMetrics();
+        assertEquals(8, cache.shortest(g, 0, topo, m).dist[4]);
+
+        long before = g.version();
+        g.addEdge(0, 4, 1);
+        assertNotEquals(before, g.version());
+        assertEquals(1, cache.shortest(g, 0, topo, m).dist[4]);
+        assertEquals(0, m.getCacheHits());
+        assertEquals(1, cache.size(), "entries of the old version are dropped");
+    }
+
+    @Test
+    void mutationsBetweenLookupsNeverServeOldPaths() throws Exception {
+        Graph g = chain(50);
+        int[] topo = new KahnTopoSort().sort(g, new SimpleMetrics()).order;
+        DagPathCache cache = new DagPathCache(1 << 20);
+        Metrics m = new SimpleMetrics();
+        assertEquals(98, cache.shortest(g, 0, topo, m).dist[49]);
+        assertEquals(98, cache.longest(g, 0, topo, m).best[49]);
+
+        // shortcuts 0 -> k only shorten the path, so every answer must match the graph it was asked of
+        Thread writer = new Thread(() -> {
+            for (int k = 48; k >= 1; k--)
+                g.addEdge(0, k, 1);
+        });
+        writer.start();
+        while (writer.isAlive())
+            cache.shortest(g, 0, topo, m);
+        writer.join();
+
+        int[] fresh = new DagShortestPaths().shortest(g.csr(), 0, topo, new SimpleMetrics()).dist;
+        assertEquals(3, fresh[49]); // 0 -> 48 -> 49
+        assertArrayEquals(fresh, cache.shortest(g, 0, topo, m).dist);
+        assertEquals(98, cache.longest(g, 0, topo, m).best[49]);
+        g.addEdge(0, 49, 1);
+        assertEquals(1, cache.shortest(g, 0, topo, m).dist[49]);
+    }
+
+    @Test
+    void graphsAtTheSameVersionDoNotShareEntries() {
+        Graph a = chain(5);
+        Graph b = new Graph(5, true);
+        for (int i = 0; i + 1 < 5; i++)
+            b.addEdge(i, i + 1, 7);
+        assertEquals(a.version(), b.version());
+        int[] topo = new KahnTopoSort().sort(a, new SimpleMetrics()).order;
+        DagPathCache cache = new DagPathCache(1 << 20);
+        Metrics m = new SimpleMetrics();
+
+        assertEquals(8, cache.shortest(a, 0, topo, m).dist[4]);
+        assertEquals(28, cache.shortest(b, 0, topo, m).dist[4]);
+        assertEquals(0, m.getCacheHits());
+
+        // a newer version of b leaves a's entry alone
+        b.addEdge(0, 4, 1);
+        assertEquals(1, cache.shortest(b, 0, topo, m).dist[4]);
+        assertEquals(8, cache.shortest(a, 0, topo, m).dist[4]);
+        assertEquals(1, m.getCacheHits());
+        assertEquals(2, cache.size());
+
+        // the CSR overload keys on the dag reference
+        CsrGraph x = new CsrGraph.Builder(2).addEdge(0, 1, 3).build();
+        CsrGraph y = new CsrGraph.Builder(2).addEdge(0, 1, 9).build();
+        int[] order = { 0, 1 };
+        assertEquals(3, cache.shortest(x, 0, 0, order, m).dist[1]);
+        assertEquals(9, cache.shortest(y, 0, 0, order, m).dist[1]);
+        assertEquals(3, cache.shortest(x, 0, 0, order, m).dist[1]);
+    }
+}
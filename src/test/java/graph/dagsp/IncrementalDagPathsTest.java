@@ -0,0 +1,85 @@
+package graph.dagsp;
+
+import common.metrics.Metrics;
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import graph.model.TestGraphs;
+import graph.topo.KahnTopoSort;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Incremental updates must land on the same values as a full recompute. */
+public class IncrementalDagPathsTest {
+
+    @Test
+    void matchesFullRecomputeAfterRandomWeightChanges() {
+        Random r = new Random(13);
+        for (int round = 0; round < 30; round++) {
+            int n = 2 + r.nextInt(150);
+            CsrGraph dag = TestGraphs.randomDag(r, n, 3 * n, 9);
+            int[] topo = new KahnTopoSort().sort(dag, new SimpleMetrics()).order;
+            int src = r.nextInt(n);
+            IncrementalDagPaths sp = IncrementalDagPaths.shortest(dag, src, topo, new SimpleMetrics());
+            IncrementalDagPaths lp = IncrementalDagPaths.longest(dag, src, topo);
+            int[] current = dag.weights.clone();
+
+            for (int step = 0; step < 10 && dag.edgeCount() > 0; step++) {
+                int k = 1 + r.nextInt(3);
+                int[] edges = new int[k], ws = new int[k];
+                for (int i = 0; i < k; i++) {
+                    edges[i] = r.nextInt(dag.edgeCount());
+                    ws[i] = 1 + r.nextInt(20);
+                    current[edges[i]] = ws[i];
+                }
+                sp.updateWeights(edges, ws, new SimpleMetrics());
+                lp.updateWeights(edges, ws, new SimpleMetrics());
+
+                CsrGraph now = new CsrGraph(n, true, null, dag.offsets, dag.targets, current.clone());
+                DagShortestPaths.Result fullSp = new DagShortestPaths().shortest(now, src, topo, new SimpleMetrics());
+                DagLongestPath.Result fullLp = new DagLongestPath().longest(now, src, topo);
+                assertArrayEquals(fullSp.dist, sp.values());
+                assertArrayEquals(fullLp.best, lp.values());
+                assertTightParents(now, sp.values(), sp.parent(), src);
+                assertTightParents(now, lp.values(), lp.parent(), src);
+            }
+        }
+    }
+
+    @Test
+    void onlyTheDownstreamConeIsTouched() {
+        // two independent chains 0..999 and 1000..1999 hanging off source 2000
+        int n = 2001, src = 2000;
+        CsrGraph.Builder b = new CsrGraph.Builder(n).addEdge(src, 0, 1).addEdge(src, 1000, 1);
+        for (int i = 0; i + 1 < 1000; i++) {
+            b.addEdge(i, i + 1, 1);
+            b.addEdge(1000 + i, 1001 + i, 1);
+        }
+        CsrGraph dag = b.build();
+        int[] topo = new KahnTopoSort().sort(dag, new SimpleMetrics()).order;
+        IncrementalDagPaths sp = IncrementalDagPaths.shortest(dag, src, topo, new SimpleMetrics());
+
+        Metrics m = new SimpleMetrics();
+        int e = sp.edgeIndex(1990, 1991);
+        int changed = sp.updateWeights(new int[] { e }, new int[] { 5 }, m);
+        assertEquals(9, changed); // 1991..1999
+        assertEquals(9, m.getRelaxations());
+        assertEquals(1000 + 4, sp.values()[1999]);
+        assertEquals(1000, sp.asShortest().dist[999]);
+        assertThrows(IllegalStateException.class, sp::asLongest);
+    }
+
+    private static void assertTightParents(CsrGraph g, int[] value, int[] parent, int src) {
+        for (int v = 0; v < g.n; v++) {
+            if (v == src || parent[v] < 0)
+                continue;
+            int u = parent[v];
+            boolean tight = false;
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++)
+                tight |= g.targets[i] == v && value[u] + g.weights[i] == value[v];
+            assertTrue(tight, "parent edge " + u + "->" + v + " does not attain the value");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package graph.dagsp;
+
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import graph.model.TestGraphs;
+import graph.topo.KahnTopoSort;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Batched sources must give the same rows as one single-source run per source. */
+public class MultiSourceTest {
+
+    @Test
+    void batchedRowsMatchSingleSourceRuns() {
+        Random r = new Random(14);
+        DagShortestPaths sp = new DagShortestPaths();
+        for (int round = 0; round < 20; round++) {
+            int n = 1 + r.nextInt(200);
+            CsrGraph dag = TestGraphs.randomDag(r, n, 3 * n, 9);
+            int[] topo = new KahnTopoSort().sort(dag, new SimpleMetrics()).order;
+            int[] sources = new int[1 + r.nextInt(150)];
+            for (int i = 0; i < sources.length; i++)
+                sources[i] = r.nextInt(n); // duplicates allowed
+
+            SimpleMetrics batched = new SimpleMetrics(), singles = new SimpleMetrics();
+            DagShortestPaths.MultiResult multi = sp.shortestMany(dag, sources, topo, batched);
+            for (int i = 0; i < sources.length; i++) {
+                int[] single = sp.shortest(dag, sources[i], topo, singles).dist;
+                assertArrayEquals(single, multi.dist[i], "source " + sources[i]);
+            }
+            assertEquals(singles.getRelaxations(), batched.getRelaxations(), "only improvements count");
+        }
+    }
+
+    @Test
+    void narrowBlocksOnCustomPoolCoverEverySourceOnce() {
+        CsrGraph dag = new CsrGraph.Builder(5)
+                .addEdge(0, 1, 2).addEdge(1, 2, 2).addEdge(0, 3, 7).addEdge(3, 4, 1).addEdge(2, 4, 1)
+                .build();
+        int[] topo = new KahnTopoSort().sort(dag, new SimpleMetrics()).order;
+        int[] sources = { 4, 0, 2, 3, 1 };
+        int[][] rows = new int[sources.length][];
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            new DagShortestPaths().shortestBlocks(dag, sources, topo, 2, pool, (lanes, dist) -> {
+                assertTrue(lanes.length <= 2);
+                for (int j = 0; j < lanes.length; j++) {
+                    int[] row = new int[dag.n];
+                    for (int v = 0; v < dag.n; v++)
+                        row[v] = dist[v * lanes.length + j];
+                    synchronized (rows) {
+                        assertNull(rows[lanes[j]]);
+                        rows[lanes[j]] = row;
+                    }
+                }
+            }, new SimpleMetrics());
+        } finally {
+            pool.shutdown();
+        }
+        int inf = DagShortestPaths.INF;
+        assertArrayEquals(new int[] { 0, 2, 4, 7, 5 }, rows[1]);
+        assertArrayEquals(new int[] { inf, inf, inf, inf, 0 }, rows[0]);
+        assertArrayEquals(new int[] { inf, 0, 2, inf, 3 }, rows[4]);
+    }
+}
@@ -0,0 +1,74 @@
+package graph.dagsp;
+
+import common.metrics.Metrics;
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import graph.model.TestGraphs;
+import graph.topo.KahnTopoSort;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Cone-pruned queries must agree with full single-source runs. */
+public class PointToPointPathsTest {
+
+    @Test
+    void matchesSingleSourceOnRandomDags() {
+        Random r = new Random(17);
+        DagShortestPaths sp = new DagShortestPaths();
+        for (int round = 0; round < 20; round++) {
+            int n = 1 + r.nextInt(200);
+            CsrGraph dag = TestGraphs.randomDag(r, n, 2 * n, 9);
+            int[] topo = new KahnTopoSort().sort(dag, new SimpleMetrics()).order;
+            PointToPointPaths p2p = new PointToPointPaths(dag, topo);
+            for (int q = 0; q < 50; q++) {
+                int s = r.nextInt(n), t = r.nextInt(n);
+                DagShortestPaths.Result full = sp.shortest(dag, s, topo, new SimpleMetrics());
+                PointToPointPaths.Result res = p2p.shortest(s, t, new SimpleMetrics());
+                assertEquals(full.dist[t], res.dist, s + " -> " + t);
+                if (res.dist == DagShortestPaths.INF) {
+                    assertEquals(0, res.path.length);
+                } else {
+                    assertEquals(s, res.path[0]);
+                    assertEquals(t, res.path[res.path.length - 1]);
+                    assertEquals(res.dist, pathWeight(dag, res.path));
+                }
+            }
+        }
+    }
+
+    @Test
+    void relaxesOnlyTheCone() {
+        // 0 -> 1 -> 2 is the query; 3..5 hang off 0 but never reach 2
+        CsrGraph dag = new CsrGraph.Builder(6)
+                .addEdge(0, 1, 1).addEdge(1, 2, 1).addEdge(0, 3, 1).addEdge(3, 4, 1).addEdge(4, 5, 1)
+                .build();
+        int[] topo = { 0, 3, 1, 4, 2, 5 };
+        PointToPointPaths p2p = new PointToPointPaths(dag, topo);
+        Metrics m = new SimpleMetrics();
+        PointToPointPaths.Result res = p2p.shortest(0, 2, m);
+        assertEquals(2, res.dist);
+        assertArrayEquals(new int[] { 0, 1, 2 }, res.path);
+        assertEquals(2, m.getRelaxations());
+        assertEquals(5, res.touched, "5 lies past dst's rank");
+
+        PointToPointPaths.Result back = p2p.shortest(2, 0, m);
+        assertEquals(DagShortestPaths.INF, back.dist);
+        assertEquals(0, back.touched, "rank check rejects it before any search");
+    }
+
+    private static int pathWeight(CsrGraph g, int[] path) {
+        int total = 0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            int best = Integer.MAX_VALUE;
+            for (int e = g.offsets[path[i]]; e < g.offsets[path[i] + 1]; e++) {
+                if (g.targets[e] == path[i + 1])
+                    best = Math.min(best, g.weights[e]);
+            }
+            total += best;
+        }
+        return total;
+    }
+}
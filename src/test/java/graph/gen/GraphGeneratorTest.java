@@ -0,0 +1,58 @@
+package graph.gen;
+
+import common.io.JsonLoader;
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import graph.scc.TarjanSCC;
+import graph.topo.KahnTopoSort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Generator families: determinism, acyclic backbone, exact planted SCC count. */
+public class GraphGeneratorTest {
+
+    @Test
+    void sameSeedSameGraph() {
+        CsrGraph a = new GraphGenerator(5).vertices(500).density(GraphGenerator.Density.MEDIUM).plantedSccs(20).generate();
+        CsrGraph b = new GraphGenerator(5).vertices(500).density(GraphGenerator.Density.MEDIUM).plantedSccs(20).generate();
+        assertArrayEquals(a.offsets, b.offsets);
+        assertArrayEquals(a.targets, b.targets);
+        assertArrayEquals(a.weights, b.weights);
+        assertEquals(a.source, b.source);
+    }
+
+    @Test
+    void backboneIsAcyclicAndWeightsInRange() {
+        CsrGraph g = new GraphGenerator(9).vertices(2_000).density(GraphGenerator.Density.DENSE).weights(3, 4).generate();
+        assertEquals(2_000, new KahnTopoSort().order(g, new SimpleMetrics()).size());
+        assertEquals(2_000 - 1 + 2_000 * 8, g.edgeCount());
+        for (int w : g.weights)
+            assertTrue(w >= 3 && w <= 4);
+    }
+
+    @Test
+    void plantsExactlyTheRequestedSccs() {
+        CsrGraph g = new GraphGenerator(13).vertices(10_000).density(GraphGenerator.Density.SPARSE).plantedSccs(700).generate();
+        TarjanSCC.Result res = new TarjanSCC().compute(g, new SimpleMetrics());
+        long nonTrivial = res.components.stream().filter(c -> c.size() > 1).count();
+        assertEquals(700, nonTrivial);
+        res.components.forEach(c -> assertTrue(c.size() <= 5));
+    }
+
+    @Test
+    void jsonStreamMatchesInMemoryGraph(@TempDir Path dir) {
+        GraphGenerator gen = new GraphGenerator(21).vertices(300).plantedSccs(10);
+        Path f = dir.resolve("g.json");
+        gen.writeJson(f);
+        CsrGraph expected = gen.generate();
+        CsrGraph loaded = JsonLoader.loadCsr(f);
+        assertArrayEquals(expected.offsets, loaded.offsets);
+        assertArrayEquals(expected.targets, loaded.targets);
+        assertArrayEquals(expected.weights, loaded.weights);
+        assertEquals(expected.source, loaded.source);
+    }
+}
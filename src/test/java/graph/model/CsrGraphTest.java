@@ -0,0 +1,131 @@
+package graph.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** CSR layout keeps insertion order per vertex (also when built in parallel) and the Edge view mirrors it. */
+public class CsrGraphTest {
+
+    @Test
+    void builderLaysOutAdjacencyInInsertionOrder() {
+        CsrGraph g = new CsrGraph.Builder(4)
+                .addEdge(2, 3, 7)
+                .addEdge(0, 2, 5)
+                .addEdge(0, 1, 2)
+                .addEdge(2, 0, 1)
+                .build();
+
+        assertArrayEquals(new int[] { 0, 2, 2, 4, 4 }, g.offsets);
+        assertArrayEquals(new int[] { 2, 1, 3, 0 }, g.targets);
+        assertArrayEquals(new int[] { 5, 2, 7, 1 }, g.weights);
+        assertEquals(4, g.edgeCount());
+        assertEquals(0, g.outDegree(1));
+    }
+
+    @Test
+    void graphRefreezesAfterNewEdges() {
+        Graph g = new Graph(3, true);
+        g.addEdge(0, 1, 4);
+        CsrGraph first = g.csr();
+        assertSame(first, g.csr());
+
+        g.addEdge(1, 2, 6);
+        CsrGraph second = g.csr();
+        assertNotSame(first, second);
+        assertEquals(2, g.edgeCount());
+
+        List<Edge> out = g.adj.get(1);
+        assertEquals(1, out.size());
+        assertEquals(2, out.get(0).v);
+        assertEquals(6, out.get(0).w);
+    }
+
+    @Test
+    void deltaAfterFreezeIsMergedBehindFrozenEdges() {
+        Graph g = new Graph(3, true);
+        g.addEdge(0, 2, 1);
+        g.addEdge(1, 0, 2);
+        CsrGraph base = g.csr();
+        g.addEdges(new int[] { 0, 2 }, new int[] { 1, 0 }, new int[] { 3, 4 });
+        g.addEdge(1, 2, 5);
+        assertEquals(5, g.edgeCount());
+        assertArrayEquals(new int[] { 2, 0 }, base.targets, "frozen arrays are not touched");
+
+        CsrGraph merged = g.csr();
+        assertArrayEquals(new int[] { 0, 2, 4, 5 }, merged.offsets);
+        assertArrayEquals(new int[] { 2, 1, 0, 2, 0 }, merged.targets);
+        assertArrayEquals(new int[] { 1, 3, 2, 5, 4 }, merged.weights);
+    }
+
+    @Test
+    void rejectsOutOfRangeEdges() {
+        Graph g = new Graph(2, true);
+        assertThrows(IndexOutOfBoundsException.class, () -> g.addEdge(0, 2, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CsrGraph.Builder(2).addEdge(3, 0, 1).build());
+    }
+
+    @Test
+    void parallelBuildMatchesSequentialLayout() {
+        Random r = new Random(24);
+        int n = 5_000, m = 200_000;
+        int[] us = new int[m], vs = new int[m], ws = new int[m];
+        for (int i = 0; i < m; i++) {
+            us[i] = r.nextInt(n);
+            vs[i] = r.nextInt(n);
+            ws[i] = r.nextInt(21) - 10;
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (boolean sorted : new boolean[] { false, true }) {
+                CsrGraph.Builder b = new CsrGraph.Builder(n).sortTargets(sorted).addEdges(us, vs, ws, 0, m);
+                CsrGraph seq = b.build();
+                CsrGraph par = b.build(pool);
+                assertArrayEquals(seq.offsets, par.offsets);
+                assertArrayEquals(seq.targets, par.targets);
+                assertArrayEquals(seq.weights, par.weights);
+                if (sorted) {
+                    for (int u = 0; u < n; u++) {
+                        for (int i = par.offsets[u] + 1; i < par.offsets[u + 1]; i++) {
+                            assertTrue(par.targets[i - 1] < par.targets[i]
+                                    || par.targets[i - 1] == par.targets[i] && par.weights[i - 1] <= par.weights[i]);
+                        }
+                    }
+                }
+            }
+
+            us[m - 1] = n;
+            assertThrows(IllegalArgumentException.class,
+                    () -> new CsrGraph.Builder(n).addEdges(us, vs, ws, 0, m).build(pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void reverseIsCachedAndInAdjListsPredecessors() {
+        Graph g = new Graph(3, true);
+        g.addEdge(0, 2, 4);
+        g.addEdge(1, 2, 6);
+        CsrGraph r = g.reverse();
+        assertSame(r, g.reverse());
+        assertSame(g.csr(), r.reverse());
+        assertEquals(2, g.csr().inDegree(2));
+        assertEquals(0, g.csr().inDegree(0));
+
+        List<Edge> in = g.inAdj.get(2);
+        assertEquals(2, in.size());
+        assertEquals(0, in.get(0).u);
+        assertEquals(2, in.get(0).v);
+        assertEquals(4, in.get(0).w);
+        assertEquals(1, in.get(1).u);
+
+        g.addEdge(2, 0, 1);
+        assertNotSame(r, g.reverse());
+        assertEquals(1, g.inAdj.get(0).size());
+    }
+}
@@ -0,0 +1,25 @@
+package graph.model;
+
+import java.util.Random;
+
+/** Random graph fixtures shared by the property tests. */
+public final class TestGraphs {
+
+    private TestGraphs() {
+    }
+
+    /**
+     * {@code draws} random pairs, each kept as the edge min -> max unless it is a
+     * self-loop, so vertex id order is a topological order. Weights are drawn
+     * from [1, maxWeight]; with maxWeight 1 no random number is spent on them.
+     */
+    public static CsrGraph randomDag(Random r, int n, int draws, int maxWeight) {
+        CsrGraph.Builder b = new CsrGraph.Builder(n);
+        for (int i = 0; i < draws; i++) {
+            int u = r.nextInt(n), v = r.nextInt(n);
+            if (u != v)
+                b.addEdge(Math.min(u, v), Math.max(u, v), maxWeight > 1 ? 1 + r.nextInt(maxWeight) : 1);
+        }
+        return b.build();
+    }
+}
@@ -0,0 +1,78 @@
+package graph.scc;
+
+import common.metrics.SimpleMetrics;
+import graph.gen.GraphGenerator;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Parallel inter-component edges collapse to one edge carrying the min / max weight. */
+public class CondensationWeightsTest {
+
+    @Test
+    void parallelEdgesKeepMinAndMaxWeight() {
+        // {0,1} cycle, {2}, {3}; three edges {0,1} -> 2 with weights 7, 3, 5
+        Graph g = new Graph(4, true);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 0, 1);
+        g.addEdge(0, 2, 7);
+        g.addEdge(1, 2, 3);
+        g.addEdge(0, 2, 5);
+        g.addEdge(2, 3, 4);
+        TarjanSCC.Result scc = new TarjanSCC().compute(g, new SimpleMetrics());
+
+        CondensationGraphBuilder.Result r = new CondensationGraphBuilder()
+                .buildWeighted(g, scc.components.size(), scc.compId);
+        int a = scc.compId[0], b = scc.compId[2], c = scc.compId[3];
+        assertEquals(2, r.min.edgeCount());
+        assertEquals(3, weight(r.min, a, b));
+        assertEquals(7, weight(r.max, a, b));
+        assertEquals(4, weight(r.min, b, c));
+        assertEquals(4, weight(r.max, b, c));
+        assertSame(r.min.targets, r.max.targets, "structure is shared");
+    }
+
+    @Test
+    void matchesMapBasedDedupOnGeneratedGraph() {
+        CsrGraph g = new GraphGenerator(11).vertices(5_000).density(GraphGenerator.Density.DENSE)
+                .plantedSccs(800).generate();
+        TarjanSCC.Result scc = new TarjanSCC().compute(g, new SimpleMetrics());
+        CondensationGraphBuilder.Result r = new CondensationGraphBuilder()
+                .buildWeighted(g, scc.components.size(), scc.compId);
+
+        Map<Long, int[]> expected = new HashMap<>();
+        for (int u = 0; u < g.n; u++) {
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                int cu = scc.compId[u], cv = scc.compId[g.targets[i]];
+                if (cu == cv)
+                    continue;
+                int w = g.weights[i];
+                expected.merge(((long) cu << 32) | cv, new int[] { w, w },
+                        (x, y) -> new int[] { Math.min(x[0], y[0]), Math.max(x[1], y[1]) });
+            }
+        }
+
+        assertEquals(expected.size(), r.min.edgeCount());
+        for (int cu = 0; cu < r.min.n; cu++) {
+            for (int i = r.min.offsets[cu]; i < r.min.offsets[cu + 1]; i++) {
+                int[] mm = expected.get(((long) cu << 32) | r.min.targets[i]);
+                assertNotNull(mm);
+                assertEquals(mm[0], r.min.weights[i]);
+                assertEquals(mm[1], r.max.weights[i]);
+            }
+        }
+    }
+
+    private static int weight(CsrGraph g, int u, int v) {
+        for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+            if (g.targets[i] == v)
+                return g.weights[i];
+        }
+        throw new AssertionError("no edge " + u + " -> " + v);
+    }
+}
@@ -0,0 +1,126 @@
+package graph.scc;
+
+import common.io.BinaryGraphIO;
+import common.io.EdgeFile;
+import common.io.IntFile;
+import common.metrics.SimpleMetrics;
+import graph.gen.GraphGenerator;
+import graph.model.CsrGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Out-of-core pipeline must match the in-memory SCC, condensation and a valid topo order. */
+public class ExternalSccTest {
+
+    @Test
+    void colouringRoundsMatchTarjan(@TempDir Path dir) {
+        Random r = new Random(23);
+        for (int round = 0; round < 15; round++) {
+            int n = 1 + r.nextInt(400);
+            CsrGraph g = SccTestSupport.randomDigraph(r, n, r.nextInt(3 * n), 9);
+            // budget just above the vertex state, so every round runs out of core
+            long budget = (long) Math.ceil(ExternalSCC.VERTEX_BYTES * n) + 64;
+            ExternalSCC.Result res = check(g, dir.resolve("r" + round), budget);
+            assertTrue(res.rounds > 0 || res.count == n, "expected colouring rounds");
+        }
+    }
+
+    @Test
+    void generatedGraphWithBudgetForInMemoryFinish(@TempDir Path dir) {
+        CsrGraph g = new GraphGenerator(5).vertices(20_000).density(GraphGenerator.Density.MEDIUM)
+                .plantedSccs(2_000).generate();
+        ExternalSCC.Result res = check(g, dir, 64L << 20);
+        assertEquals(0, res.rounds);
+
+        SimpleMetrics m = new SimpleMetrics();
+        ExternalSCC.Result tight = new ExternalSCC(dir, (long) Math.ceil(ExternalSCC.VERTEX_BYTES * g.n) + 1024)
+                .run(dir.resolve("g.edges"), dir.resolve("tight"), m);
+        assertEquals(res.count, tight.count);
+        // no room beyond the per-component arrays: minimal sort buffer, fan-in 2
+        assertTrue(tight.sortMergePasses > 0, "fan-in limited merge");
+        assertTrue(m.getBytesRead() >= 3L * EdgeFile.EDGE_BYTES * g.edgeCount(), "several passes over the edges");
+        assertTrue(m.getBytesWritten() > 0);
+    }
+
+    @Test
+    void rejectsBudgetBelowVertexState(@TempDir Path dir) {
+        Path edges = dir.resolve("g.edges");
+        EdgeFile.fromCsr(new CsrGraph.Builder(1000).build(), edges, new SimpleMetrics());
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExternalSCC(dir, 1000).run(edges, dir.resolve("out"), new SimpleMetrics()));
+    }
+
+    @Test
+    void rejectsEdgesOutsideTheVertexRange(@TempDir Path dir) throws IOException {
+        Path edges = dir.resolve("bad.edges");
+        try (EdgeFile.Writer w = new EdgeFile.Writer(edges, 3, new SimpleMetrics())) {
+            w.add(0, 1, 1);
+            w.add(1, 5, 1);
+        }
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> new ExternalSCC(dir, 1 << 20).run(edges, dir.resolve("out"), new SimpleMetrics()));
+        assertTrue(e.getCause() instanceof IOException);
+        assertTrue(e.getCause().getMessage().contains("1->5"));
+
+        Path json = dir.resolve("no-n.json");
+        Files.writeString(json, "{\"directed\": true, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}]}");
+        assertThrows(RuntimeException.class,
+                () -> EdgeFile.fromJson(json, dir.resolve("no-n.edges"), new SimpleMetrics()));
+    }
+
+    private static ExternalSCC.Result check(CsrGraph g, Path dir, long budget) {
+        Path edges = dir.resolve("g.edges");
+        dir.toFile().mkdirs();
+        EdgeFile.fromCsr(g, edges, new SimpleMetrics());
+        Path out = dir.resolve("out");
+        ExternalSCC.Result res = new ExternalSCC(dir, budget).run(edges, out, new SimpleMetrics());
+
+        TarjanSCC.Result expected = new TarjanSCC().compute(g, new SimpleMetrics());
+        SccTestSupport.assertSamePartition(expected, TarjanSCC.Result.fromCompIds(res.compId, res.count));
+        assertArrayEquals(res.compId, IntFile.read(out.resolve(ExternalSCC.COMP_IDS)));
+        assertArrayEquals(res.topo, IntFile.read(out.resolve(ExternalSCC.TOPO)));
+
+        // same weighted condensation up to component numbering
+        CondensationGraphBuilder.Result cond = new CondensationGraphBuilder()
+                .buildWeighted(g, expected.count(), expected.compId);
+        CsrGraph min = BinaryGraphIO.read(out.resolve(ExternalSCC.MIN_DAG));
+        CsrGraph max = BinaryGraphIO.read(out.resolve(ExternalSCC.MAX_DAG));
+        assertEquals(cond.min.edgeCount(), min.edgeCount());
+        assertEquals(res.dagEdges, min.edgeCount());
+        int[] toTarjan = new int[res.count];
+        for (int v = 0; v < g.n; v++)
+            toTarjan[res.compId[v]] = expected.compId[v];
+        Map<Long, Integer> minW = weights(cond.min, null), maxW = weights(cond.max, null);
+        assertEquals(minW, weights(min, toTarjan));
+        assertEquals(maxW, weights(max, toTarjan));
+
+        int[] pos = new int[res.count];
+        for (int i = 0; i < res.topo.length; i++)
+            pos[res.topo[i]] = i;
+        for (int u = 0; u < min.n; u++) {
+            for (int i = min.offsets[u]; i < min.offsets[u + 1]; i++)
+                assertTrue(pos[u] < pos[min.targets[i]], "edge against topo order");
+        }
+        return res;
+    }
+
+    private static Map<Long, Integer> weights(CsrGraph dag, int[] relabel) {
+        Map<Long, Integer> out = new HashMap<>();
+        for (int u = 0; u < dag.n; u++) {
+            for (int i = dag.offsets[u]; i < dag.offsets[u + 1]; i++) {
+                int a = relabel == null ? u : relabel[u], b = relabel == null ? dag.targets[i] : relabel[dag.targets[i]];
+                assertNull(out.put(((long) a << 32) | b, dag.weights[i]), "duplicate condensation edge");
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,93 @@
+package graph.scc;
+
+import common.metrics.Metrics;
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** IncrementalSCC must agree with a fresh Tarjan run after every insertion batch. */
+public class IncrementalSccTest {
+
+    @Test
+    void matchesTarjanAfterRandomInsertions() {
+        Random r = new Random(5);
+        for (int round = 0; round < 30; round++) {
+            int n = 2 + r.nextInt(120);
+            Graph g = new Graph(n, true);
+            for (int i = 0; i < n; i++) {
+                int a = r.nextInt(n), b = r.nextInt(n);
+                g.addEdge(Math.min(a, b), Math.max(a, b), 1 + r.nextInt(9)); // start acyclic-ish
+            }
+            IncrementalSCC inc = new IncrementalSCC(g);
+            for (int batch = 0; batch < 10; batch++) {
+                int k = 1 + r.nextInt(4);
+                int[] us = new int[k], vs = new int[k], ws = new int[k];
+                for (int i = 0; i < k; i++) {
+                    us[i] = r.nextInt(n);
+                    vs[i] = r.nextInt(n);
+                    ws[i] = 1 + r.nextInt(9);
+                }
+                inc.addEdges(us, vs, ws, new SimpleMetrics());
+                check(g, inc);
+            }
+        }
+    }
+
+    @Test
+    void forwardEdgeIsFreeAndBackEdgeOnlyTouchesItsWindow() {
+        int n = 100_000;
+        Graph g = new Graph(n, true);
+        for (int i = 0; i + 1 < n; i++)
+            g.addEdge(i, i + 1, 1);
+        IncrementalSCC inc = new IncrementalSCC(g);
+
+        Metrics m = new SimpleMetrics();
+        inc.addEdge(10, 20_000, 1, m);
+        assertEquals(0, m.getDfsVisits());
+
+        inc.addEdge(50_010, 50_000, 1, m);
+        assertEquals(n - 10, inc.componentCount());
+        assertTrue(m.getDfsVisits() <= 22, "visited " + m.getDfsVisits());
+        assertEquals(inc.componentOf(50_000), inc.componentOf(50_010));
+        assertEquals(11, inc.members(inc.componentOf(50_005)).length);
+        check(g, inc);
+    }
+
+    private static void check(Graph g, IncrementalSCC inc) {
+        TarjanSCC.Result fresh = new TarjanSCC().compute(g, new SimpleMetrics());
+        TarjanSCC.Result snap = inc.snapshot();
+        SccTestSupport.assertSamePartition(fresh, snap);
+        assertEquals(fresh.components.size(), inc.componentCount());
+
+        // dense ids are a topological order of the condensation, weights match the batch builder
+        CondensationGraphBuilder.Result dag = inc.condensation();
+        CondensationGraphBuilder.Result ref = new CondensationGraphBuilder()
+                .buildWeighted(g, fresh.components.size(), fresh.compId);
+        assertEquals(ref.min.edgeCount(), dag.min.edgeCount());
+        for (int c = 0; c < dag.min.n; c++) {
+            for (int i = dag.min.offsets[c]; i < dag.min.offsets[c + 1]; i++) {
+                int t = dag.min.targets[i];
+                assertTrue(c < t, "edge against topological numbering");
+                int rc = fresh.compId[snap.components.get(c).get(0)];
+                int rt = fresh.compId[snap.components.get(t).get(0)];
+                int[] w = weights(ref, rc, rt);
+                assertEquals(w[0], dag.min.weights[i]);
+                assertEquals(w[1], dag.max.weights[i]);
+            }
+        }
+    }
+
+    private static int[] weights(CondensationGraphBuilder.Result r, int u, int v) {
+        CsrGraph g = r.min;
+        for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+            if (g.targets[i] == v)
+                return new int[] { r.min.weights[i], r.max.weights[i] };
+        }
+        throw new AssertionError("missing condensation edge " + u + " -> " + v);
+    }
+}
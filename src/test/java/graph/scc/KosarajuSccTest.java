@@ -0,0 +1,56 @@
+package graph.scc;
+
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Kosaraju over the cached transpose must find Tarjan's components, numbered in reverse topological order. */
+public class KosarajuSccTest {
+
+    @Test
+    void sameComponentsAsTarjanOnRandomGraphs() {
+        Random r = new Random(25);
+        for (int round = 0; round < 60; round++) {
+            int n = 1 + r.nextInt(300);
+            CsrGraph g = SccTestSupport.randomDigraph(r, n, r.nextInt(3 * n), 1);
+
+            TarjanSCC.Result expected = new TarjanSCC().compute(g, new SimpleMetrics());
+            SimpleMetrics km = new SimpleMetrics();
+            TarjanSCC.Result res = new KosarajuSCC().compute(g, km);
+            SccTestSupport.assertSamePartition(expected, res);
+            for (int u = 0; u < n; u++) {
+                for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++)
+                    assertTrue(res.compId[u] >= res.compId[g.targets[i]], "condensation edge against id order");
+            }
+            assertEquals(2 * n, km.getDfsVisits());
+            assertEquals(2L * g.edgeCount(), km.getDfsEdgeScans());
+        }
+    }
+
+    @Test
+    void deepCycleAndChainDoNotOverflow() {
+        int n = 1_000_000;
+        CsrGraph.Builder b = new CsrGraph.Builder(n);
+        for (int v = 0; v + 1 < n; v++)
+            b.addEdge(v, v + 1, 1);
+        assertEquals(n, new KosarajuSCC().compute(b.build(), new SimpleMetrics()).count());
+
+        b.addEdge(n - 1, 0, 1);
+        TarjanSCC.Result ring = new KosarajuSCC().compute(b.build(), new SimpleMetrics());
+        assertEquals(1, ring.count());
+        assertEquals(n, ring.compSize(0));
+    }
+
+    @Test
+    void namedEngine() {
+        CsrGraph g = new CsrGraph.Builder(3).addEdge(0, 1, 1).addEdge(1, 0, 1).addEdge(1, 2, 1).build();
+        TarjanSCC.Result res = SccAlgorithm.named("kosaraju").compute(g, new SimpleMetrics());
+        assertEquals(2, res.count());
+        assertEquals(res.compId[0], res.compId[1]);
+        assertTrue(res.compId[0] > res.compId[2]);
+    }
+}
@@ -0,0 +1,60 @@
+package graph.scc;
+
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Parallel FW-BW engine must find the same partition as Tarjan. */
+public class ParallelSccTest {
+
+    @Test
+    void samePartitionAsTarjanOnRandomGraphs() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // tiny cutoffs so FW-BW splitting and parallel frontiers are exercised
+            SccAlgorithm parallel = new ParallelSCC(pool, 8, 16);
+            Random r = new Random(11);
+            for (int round = 0; round < 40; round++) {
+                int n = 1 + r.nextInt(400);
+                Graph g = new Graph(SccTestSupport.randomDigraph(r, n, r.nextInt(3 * n), 1));
+                SccTestSupport.assertSamePartition(new TarjanSCC().compute(g, new SimpleMetrics()),
+                        parallel.compute(g, new SimpleMetrics()));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void giantComponentWithSmallCyclesAndTails() {
+        int n = 20_000;
+        CsrGraph.Builder b = new CsrGraph.Builder(n);
+        Random r = new Random(3);
+        int giant = n / 2;
+        for (int v = 0; v < giant; v++)
+            b.addEdge(v, (v + 1) % giant, 1);
+        for (int v = giant; v + 3 < n; v += 4) {
+            for (int k = 0; k < 4; k++)
+                b.addEdge(v + k, v + (k + 1) % 4, 1);
+            b.addEdge(r.nextInt(giant), v, 1);
+        }
+        CsrGraph g = b.build();
+
+        SimpleMetrics m = new SimpleMetrics();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            TarjanSCC.Result res = new ParallelSCC(pool, 64, 128).compute(g, m);
+            SccTestSupport.assertSamePartition(new TarjanSCC().compute(g, new SimpleMetrics()), res);
+            assertEquals(giant, res.components.get(res.compId[0]).size());
+            assertTrue(m.getDfsVisits() >= n);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
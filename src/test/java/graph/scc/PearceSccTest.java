@@ -0,0 +1,57 @@
+package graph.scc;
+
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Pearce's single-rindex SCC must match Tarjan, numbering included. */
+public class PearceSccTest {
+
+    @Test
+    void sameComponentsAsTarjanOnRandomGraphs() {
+        Random r = new Random(21);
+        for (int round = 0; round < 60; round++) {
+            int n = 1 + r.nextInt(300);
+            CsrGraph g = SccTestSupport.randomDigraph(r, n, r.nextInt(3 * n), 1);
+
+            TarjanSCC.Result expected = new TarjanSCC().compute(g, new SimpleMetrics());
+            SimpleMetrics pm = new SimpleMetrics();
+            TarjanSCC.Result flat = new PearceSCC().compute(g, pm);
+            assertArrayEquals(expected.compId, flat.compId);
+            assertEquals(expected.components.size(), flat.count());
+            assertEquals(n, flat.offsets[flat.count()]);
+            for (int c = 0; c < flat.count(); c++) {
+                assertEquals(expected.components.get(c).size(), flat.compSize(c));
+                for (int i = flat.offsets[c]; i < flat.offsets[c + 1]; i++)
+                    assertEquals(c, flat.compId[flat.members[i]]);
+            }
+            assertEquals(n, pm.getDfsVisits());
+            assertEquals(g.edgeCount(), pm.getDfsEdgeScans());
+        }
+    }
+
+    @Test
+    void deepCycleAndChainDoNotOverflow() {
+        int n = 1_000_000;
+        CsrGraph.Builder b = new CsrGraph.Builder(n);
+        for (int v = 0; v + 1 < n; v++)
+            b.addEdge(v, v + 1, 1);
+        assertEquals(n, new PearceSCC().compute(b.build(), new SimpleMetrics()).count());
+
+        b.addEdge(n - 1, 0, 1);
+        TarjanSCC.Result ring = new PearceSCC().compute(b.build(), new SimpleMetrics());
+        assertEquals(1, ring.count());
+        assertEquals(n, ring.compSize(0));
+    }
+
+    @Test
+    void emptyGraph() {
+        TarjanSCC.Result r = new PearceSCC().compute(new CsrGraph.Builder(0).build(), new SimpleMetrics());
+        assertEquals(0, r.count());
+        assertArrayEquals(new int[] { 0 }, r.offsets);
+    }
+}
@@ -5,6 +5,8 @@ import common.metrics.SimpleMetrics;
 import graph.model.Graph;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /** Tarjan SCC on a tiny mixed graph: cycle (0,1,2) + tail 3->4. */
@@ -53,4 +55,24 @@ public class SccTest {
             mcount += dag.adj.get(u).size();
         assertTrue(mcount >= 2, "Expected at least 2 edges in condensation");
     }
+
+    @Test
+    void flatComponentsAndBoxedViewAgree() {
+        TarjanSCC.Result res = new TarjanSCC().compute(makeGraph(), new SimpleMetrics());
+
+        assertEquals(res.count() + 1, res.offsets.length);
+        assertEquals(5, res.offsets[res.count()]);
+        int c = res.compId[0];
+        assertEquals(3, res.compSize(c));
+        assertEquals(List.of(2, 1, 0), res.components.get(c)); // Tarjan stack pop order
+        assertArrayEquals(new int[] { 2, 1, 0 }, res.membersOf(c));
+
+        TarjanSCC.Result adapted = new TarjanSCC.Result(res.components, res.compId);
+        assertArrayEquals(res.members, adapted.members);
+        assertArrayEquals(res.offsets, adapted.offsets);
+
+        TarjanSCC.Result bucketed = TarjanSCC.Result.fromCompIds(res.compId, res.count());
+        assertArrayEquals(res.offsets, bucketed.offsets);
+        assertArrayEquals(new int[] { 0, 1, 2 }, bucketed.membersOf(c));
+    }
 }
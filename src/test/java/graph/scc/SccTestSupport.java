@@ -0,0 +1,41 @@
+package graph.scc;
+
+import graph.model.CsrGraph;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Random digraphs and partition comparison shared by the SCC engine tests. */
+final class SccTestSupport {
+
+    private SccTestSupport() {
+    }
+
+    /**
+     * {@code m} edges with uniformly random endpoints, self-loops and multi-edges
+     * included. Weights are drawn from [1, maxWeight]; with maxWeight 1 no random
+     * number is spent on them.
+     */
+    static CsrGraph randomDigraph(Random r, int n, int m, int maxWeight) {
+        CsrGraph.Builder b = new CsrGraph.Builder(n);
+        for (int i = 0; i < m; i++)
+            b.addEdge(r.nextInt(n), r.nextInt(n), maxWeight > 1 ? 1 + r.nextInt(maxWeight) : 1);
+        return b.build();
+    }
+
+    /** Same components up to numbering, with members lists consistent with compId. */
+    static void assertSamePartition(TarjanSCC.Result expected, TarjanSCC.Result actual) {
+        assertEquals(expected.components.size(), actual.components.size(), "SCC count");
+        int[] map = new int[expected.components.size()];
+        Arrays.fill(map, -1);
+        for (int v = 0; v < expected.compId.length; v++) {
+            int e = expected.compId[v], a = actual.compId[v];
+            if (map[e] < 0)
+                map[e] = a;
+            assertEquals(map[e], a, "vertex " + v + " in a different component");
+            assertTrue(actual.components.get(a).contains(v));
+        }
+    }
+}
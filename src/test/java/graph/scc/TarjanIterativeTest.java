@@ -0,0 +1,103 @@
+package graph.scc;
+
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Iterative Tarjan must match the textbook recursive version exactly and
+ * survive DFS depths far beyond the default thread stack.
+ */
+public class TarjanIterativeTest {
+
+    @Test
+    void matchesRecursiveReferenceOnRandomGraphs() {
+        Random r = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            int n = 1 + r.nextInt(40);
+            Graph g = new Graph(SccTestSupport.randomDigraph(r, n, r.nextInt(3 * n), 1));
+
+            SimpleMetrics im = new SimpleMetrics();
+            TarjanSCC.Result it = new TarjanSCC().compute(g, im);
+            Reference ref = new Reference(g.csr());
+
+            assertEquals(ref.comps, it.components);
+            assertArrayEquals(ref.compId, it.compId);
+            assertEquals(ref.visits, im.getDfsVisits());
+            assertEquals(ref.scans, im.getDfsEdgeScans());
+        }
+    }
+
+    @Test
+    void longCycleDoesNotOverflowStack() {
+        int n = 1_000_000;
+        CsrGraph.Builder b = new CsrGraph.Builder(n, n);
+        for (int v = 0; v + 1 < n; v++)
+            b.addEdge(v, v + 1, 1);
+        b.addEdge(n - 1, 0, 1);
+
+        TarjanSCC.Result res = new TarjanSCC().compute(b.build(), new SimpleMetrics());
+        assertEquals(1, res.components.size());
+        assertEquals(n, res.components.get(0).size());
+    }
+
+    /** Recursive Tarjan as it was before the iterative rewrite. */
+    private static final class Reference {
+        final CsrGraph g;
+        final int[] idx, low, compId;
+        final boolean[] onSt;
+        final Deque<Integer> st = new ArrayDeque<>();
+        final List<List<Integer>> comps = new ArrayList<>();
+        int time, visits, scans;
+
+        Reference(CsrGraph g) {
+            this.g = g;
+            idx = new int[g.n];
+            low = new int[g.n];
+            compId = new int[g.n];
+            onSt = new boolean[g.n];
+            for (int v = 0; v < g.n; v++) {
+                if (idx[v] == 0)
+                    dfs(v);
+            }
+        }
+
+        void dfs(int u) {
+            visits++;
+            idx[u] = low[u] = ++time;
+            st.push(u);
+            onSt[u] = true;
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                scans++;
+                int v = g.targets[i];
+                if (idx[v] == 0) {
+                    dfs(v);
+                    low[u] = Math.min(low[u], low[v]);
+                } else if (onSt[v]) {
+                    low[u] = Math.min(low[u], idx[v]);
+                }
+            }
+            if (low[u] == idx[u]) {
+                List<Integer> comp = new ArrayList<>();
+                while (true) {
+                    int v = st.pop();
+                    onSt[v] = false;
+                    compId[v] = comps.size();
+                    comp.add(v);
+                    if (v == u)
+                        break;
+                }
+                comps.add(comp);
+            }
+        }
+    }
+}
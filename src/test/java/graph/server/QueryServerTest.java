@@ -0,0 +1,135 @@
+package graph.server;
+
+import graph.model.Graph;
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Protocol answers on a tiny graph, over stdin-style streams and a loopback socket. */
+public class QueryServerTest {
+
+    /** {0,1} cycle -> 2 -> 3, plus a heavy shortcut {0,1} -> 3. */
+    private static GraphSession session() {
+        Graph g = new Graph(4, true);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 0, 1);
+        g.addEdge(1, 2, 2);
+        g.addEdge(2, 3, 3);
+        g.addEdge(0, 3, 9);
+        return new GraphSession(g, new TarjanSCC());
+    }
+
+    @Test
+    void answersQueries() {
+        GraphSession s = session();
+        QueryHandler h = new QueryHandler(s);
+        int c01 = s.scc.compId[0], c2 = s.scc.compId[2], c3 = s.scc.compId[3];
+
+        assertEquals("OK PONG", h.handle("ping"));
+        assertEquals("OK n=4 components=3 dagEdges=3", h.handle("INFO"));
+        assertEquals("OK component=" + c01 + " size=2 members=" + s.scc.components.get(c01), h.handle("COMP 1"));
+        assertEquals("OK dist=5 path=[" + c01 + ", " + c2 + ", " + c3 + "]", h.handle("SHORTEST 0 3"));
+        assertEquals("OK length=9 path=[" + c01 + ", " + c3 + "]", h.handle("LONGEST 1 3"));
+        assertEquals("OK dist=INF path=[]", h.handle("SHORTEST 3 0"));
+        assertEquals("OK reachable=true", h.handle("REACH 1 3"));
+        assertEquals("OK reachable=true", h.handle("REACH 1 0"));
+        assertEquals("OK reachable=false", h.handle("REACH 3 2"));
+        assertTrue(h.handle("PATH 0 2").startsWith("OK components=[" + c01 + ", " + c2 + "] members=[["));
+        assertTrue(h.handle("SHORTEST 0 7").startsWith("ERR vertex out of range"));
+        assertTrue(h.handle("SHORTEST 0").startsWith("ERR missing"));
+        assertTrue(h.handle("FOO").startsWith("ERR unknown command"));
+    }
+
+    @Test
+    void servesStreamsUntilQuit() throws Exception {
+        QueryServer server = new QueryServer(new QueryHandler(session()), 1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] in = "PING\n\nINFO\nQUIT\nPING\n".getBytes(StandardCharsets.UTF_8);
+        server.serve(new ByteArrayInputStream(in), out);
+        server.close();
+        assertEquals("OK PONG\nOK n=4 components=3 dagEdges=3\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void concurrentSocketClients() throws Exception {
+        try (QueryServer server = new QueryServer(new QueryHandler(session()), 4)) {
+            int port = server.listen(0);
+            Thread[] clients = new Thread[4];
+            Throwable[] failure = new Throwable[1];
+            for (int k = 0; k < clients.length; k++) {
+                clients[k] = new Thread(() -> {
+                    try (Socket sock = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                        PrintWriter w = new PrintWriter(sock.getOutputStream(), true, StandardCharsets.UTF_8);
+                        BufferedReader r = new BufferedReader(
+                                new InputStreamReader(sock.getInputStream(), StandardCharsets.UTF_8));
+                        for (int i = 0; i < 50; i++) {
+                            w.println("LONGEST 0 3");
+                            assertTrue(r.readLine().startsWith("OK length=9"));
+                        }
+                        w.println("QUIT");
+                        assertNull(r.readLine());
+                    } catch (Throwable e) {
+                        synchronized (failure) {
+                            failure[0] = e;
+                        }
+                    }
+                });
+                clients[k].start();
+            }
+            for (Thread t : clients)
+                t.join();
+            assertNull(failure[0]);
+        }
+    }
+
+    @Test
+    void refusesClientsBeyondThreadCount() throws Exception {
+        try (QueryServer server = new QueryServer(new QueryHandler(session()), 2)) {
+            int port = server.listen(0);
+            Socket a = new Socket(InetAddress.getLoopbackAddress(), port);
+            Socket b = new Socket(InetAddress.getLoopbackAddress(), port);
+            try (a; b) {
+                // both hold a thread once they have been answered
+                assertEquals("OK PONG", ask(a, "PING"));
+                assertEquals("OK PONG", ask(b, "PING"));
+                try (Socket c = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                    BufferedReader r = reader(c);
+                    assertEquals("ERR busy", r.readLine());
+                    assertNull(r.readLine());
+                }
+                new PrintWriter(a.getOutputStream(), true, StandardCharsets.UTF_8).println("QUIT");
+                assertNull(reader(a).readLine());
+            }
+
+            // the freed thread serves the next client
+            String answer = "ERR busy";
+            for (int attempt = 0; attempt < 100 && answer.equals("ERR busy"); attempt++) {
+                try (Socket d = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                    answer = ask(d, "PING");
+                }
+                if (answer.equals("ERR busy"))
+                    Thread.sleep(20);
+            }
+            assertEquals("OK PONG", answer);
+        }
+    }
+
+    private static String ask(Socket sock, String line) throws Exception {
+        new PrintWriter(sock.getOutputStream(), true, StandardCharsets.UTF_8).println(line);
+        return reader(sock).readLine();
+    }
+
+    private static BufferedReader reader(Socket sock) throws Exception {
+        return new BufferedReader(new InputStreamReader(sock.getInputStream(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,102 @@
+package graph.topo;
+
+import common.metrics.Metrics;
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Random insert/delete sequences: the order stays valid and cycles are rejected exactly. */
+public class DynamicTopoOrderTest {
+
+    @Test
+    void orderStaysValidUnderInsertionsAndDeletions() {
+        Random r = new Random(12);
+        for (int round = 0; round < 40; round++) {
+            int n = 2 + r.nextInt(60);
+            DynamicTopoOrder dyn = new DynamicTopoOrder(n);
+            List<int[]> edges = new ArrayList<>();
+            Metrics m = new SimpleMetrics();
+            for (int step = 0; step < 4 * n; step++) {
+                if (!edges.isEmpty() && r.nextInt(4) == 0) {
+                    int[] e = edges.remove(r.nextInt(edges.size()));
+                    assertTrue(dyn.removeEdge(e[0], e[1]));
+                } else {
+                    int u = r.nextInt(n), v = r.nextInt(n);
+                    boolean cyclic = reaches(n, edges, v, u);
+                    boolean added = dyn.addEdge(u, v, m);
+                    assertEquals(!cyclic, added, "edge " + u + "->" + v);
+                    if (added)
+                        edges.add(new int[] { u, v });
+                    else
+                        assertCycle(dyn.lastCycle(), edges, u, v);
+                }
+                assertEquals(edges.size(), dyn.edgeCount());
+                assertValid(dyn, edges);
+            }
+        }
+    }
+
+    @Test
+    void startsFromBatchOrderAndRejectsCycles() {
+        CsrGraph dag = new CsrGraph.Builder(4)
+                .addEdge(0, 1, 1).addEdge(1, 2, 1).addEdge(2, 3, 1)
+                .build();
+        DynamicTopoOrder dyn = new DynamicTopoOrder(dag, new SimpleMetrics());
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, dyn.order());
+
+        assertFalse(dyn.addEdge(3, 1, new SimpleMetrics()));
+        assertArrayEquals(new int[] { 1, 2, 3 }, dyn.lastCycle());
+        assertEquals(3, dyn.edgeCount());
+
+        assertTrue(dyn.removeEdge(1, 2));
+        assertTrue(dyn.addEdge(3, 1, new SimpleMetrics()));
+        assertTrue(dyn.position(3) < dyn.position(1));
+        assertTrue(dyn.position(2) < dyn.position(3));
+
+        CsrGraph cyclic = new CsrGraph.Builder(2).addEdge(0, 1, 1).addEdge(1, 0, 1).build();
+        assertThrows(IllegalArgumentException.class, () -> new DynamicTopoOrder(cyclic, new SimpleMetrics()));
+    }
+
+    private static void assertValid(DynamicTopoOrder dyn, List<int[]> edges) {
+        int[] order = dyn.order();
+        for (int i = 0; i < order.length; i++)
+            assertEquals(i, dyn.position(order[i]));
+        for (int[] e : edges)
+            assertTrue(dyn.position(e[0]) < dyn.position(e[1]), "edge " + e[0] + "->" + e[1]);
+    }
+
+    private static void assertCycle(int[] path, List<int[]> edges, int u, int v) {
+        assertEquals(v, path[0]);
+        assertEquals(u, path[path.length - 1]);
+        for (int i = 0; i + 1 < path.length; i++) {
+            int a = path[i], b = path[i + 1];
+            assertTrue(edges.stream().anyMatch(e -> e[0] == a && e[1] == b), "missing " + a + "->" + b);
+        }
+    }
+
+    private static boolean reaches(int n, List<int[]> edges, int from, int to) {
+        boolean[] seen = new boolean[n];
+        ArrayDeque<Integer> q = new ArrayDeque<>();
+        q.add(from);
+        seen[from] = true;
+        while (!q.isEmpty()) {
+            int x = q.poll();
+            if (x == to)
+                return true;
+            for (int[] e : edges) {
+                if (e[0] == x && !seen[e[1]]) {
+                    seen[e[1]] = true;
+                    q.add(e[1]);
+                }
+            }
+        }
+        return false;
+    }
+}
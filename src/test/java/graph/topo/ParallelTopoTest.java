@@ -0,0 +1,66 @@
+package graph.topo;
+
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import graph.model.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Level-synchronous sort: valid order, longest-path levels, cycle reporting. */
+public class ParallelTopoTest {
+
+    @Test
+    void levelsAreLongestPathDepths() {
+        // wide random DAG (edges only go to higher ids) so frontiers exceed the parallel threshold
+        int n = 20_000;
+        Random rnd = new Random(4);
+        CsrGraph.Builder b = new CsrGraph.Builder(n);
+        for (int i = 0; i < 3 * n; i++) {
+            int u = rnd.nextInt(n - 1);
+            b.addEdge(u, u + 1 + rnd.nextInt(Math.min(n - u - 1, 5_000)), 1);
+        }
+        CsrGraph g = b.build();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelTopoSort.Result r = new ParallelTopoSort(pool).sort(g, new SimpleMetrics());
+            assertTrue(r.isDag());
+
+            int[] pos = new int[g.n];
+            for (int i = 0; i < r.order.length; i++)
+                pos[r.order[i]] = i;
+            int[] depth = new int[g.n];
+            for (int u : new KahnTopoSort().sort(g, new SimpleMetrics()).order) {
+                for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                    int v = g.targets[e];
+                    assertTrue(pos[u] < pos[v], "edge " + u + "->" + v + " out of order");
+                    depth[v] = Math.max(depth[v], depth[u] + 1);
+                }
+            }
+            assertArrayEquals(depth, r.level);
+            for (int l = 0; l < r.levels(); l++) {
+                for (int i = r.levelStart[l]; i < r.levelStart[l + 1]; i++)
+                    assertEquals(l, r.level[r.order[i]]);
+            }
+            assertArrayEquals(r.order, new ParallelTopoSort(pool).sort(g, new SimpleMetrics()).order,
+                    "order is deterministic");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void reportsCycle() {
+        Graph g = new Graph(3, true);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 1, 1);
+        ParallelTopoSort.Result r = new ParallelTopoSort().sort(g, new SimpleMetrics());
+        assertFalse(r.isDag());
+        assertArrayEquals(new int[] { 0 }, r.order);
+        assertEquals(-1, r.level[2]);
+    }
+}
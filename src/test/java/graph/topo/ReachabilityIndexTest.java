@@ -0,0 +1,89 @@
+package graph.topo;
+
+import common.metrics.SimpleMetrics;
+import graph.model.CsrGraph;
+import graph.model.TestGraphs;
+import graph.model.Graph;
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Index answers against plain BFS, on DAGs and through SCC ids. */
+public class ReachabilityIndexTest {
+
+    @Test
+    void matchesBfsOnRandomDags() {
+        Random r = new Random(18);
+        for (int round = 0; round < 30; round++) {
+            int n = 1 + r.nextInt(120);
+            CsrGraph dag = TestGraphs.randomDag(r, n, r.nextInt(3 * n + 1), 1);
+            int[] topo = new KahnTopoSort().sort(dag, new SimpleMetrics()).order;
+            ReachabilityIndex exact = new ReachabilityIndex(dag, topo, null, Integer.MAX_VALUE, new SimpleMetrics());
+            ReachabilityIndex capped = new ReachabilityIndex(dag, topo, null, 2, new SimpleMetrics());
+            for (int u = 0; u < n; u++) {
+                boolean[] seen = bfs(dag, u);
+                for (int v = 0; v < n; v++) {
+                    assertEquals(seen[v], exact.componentReachable(u, v), u + " -> " + v);
+                    assertEquals(seen[v], capped.componentReachable(u, v), u + " -> " + v + " (capped)");
+                }
+            }
+            assertEquals(0, exact.overflowCount());
+            assertTrue(exact.intervalCount() >= n);
+            assertTrue(capped.intervalCount() <= 2 * (n - capped.overflowCount()));
+        }
+    }
+
+    @Test
+    void treeNeedsOneIntervalPerVertex() {
+        CsrGraph tree = new CsrGraph.Builder(7)
+                .addEdge(0, 1, 1).addEdge(0, 2, 1).addEdge(1, 3, 1).addEdge(1, 4, 1).addEdge(2, 5, 1).addEdge(2, 6, 1)
+                .build();
+        int[] topo = new KahnTopoSort().sort(tree, new SimpleMetrics()).order;
+        ReachabilityIndex idx = new ReachabilityIndex(tree, topo, new SimpleMetrics());
+        assertEquals(7, idx.intervalCount());
+        assertTrue(idx.componentReachable(0, 6));
+        assertFalse(idx.componentReachable(1, 5));
+    }
+
+    @Test
+    void originalVerticesGoThroughComponents() {
+        // {0,1,2} cycle -> 3 -> {4,5} cycle; 6 isolated
+        Graph g = new Graph(7, true);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 0, 1);
+        g.addEdge(2, 3, 1);
+        g.addEdge(3, 4, 1);
+        g.addEdge(4, 5, 1);
+        g.addEdge(5, 4, 1);
+        ReachabilityIndex idx = ReachabilityIndex.of(g, new TarjanSCC().compute(g, new SimpleMetrics()),
+                new SimpleMetrics());
+        assertEquals(4, idx.vertexCount());
+        assertTrue(idx.reachable(1, 0), "same SCC");
+        assertTrue(idx.reachable(0, 5));
+        assertFalse(idx.reachable(5, 3));
+        assertFalse(idx.reachable(6, 0));
+        assertFalse(idx.reachable(0, 6));
+    }
+
+    private static boolean[] bfs(CsrGraph g, int s) {
+        boolean[] seen = new boolean[g.n];
+        ArrayDeque<Integer> q = new ArrayDeque<>();
+        seen[s] = true;
+        q.add(s);
+        while (!q.isEmpty()) {
+            int u = q.poll();
+            for (int i = g.offsets[u]; i < g.offsets[u + 1]; i++) {
+                if (!seen[g.targets[i]]) {
+                    seen[g.targets[i]] = true;
+                    q.add(g.targets[i]);
+                }
+            }
+        }
+        return seen;
+    }
+}
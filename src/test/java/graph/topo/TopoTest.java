@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -56,4 +57,45 @@ public class TopoTest {
         assertTrue(m.getKahnPushes() >= 1);
         assertTrue(m.getKahnPops() >= 1);
     }
+
+    @Test
+    void primitiveOrderMatchesListOrder() {
+        Graph g = dag();
+        KahnTopoSort.Result r = new KahnTopoSort().sort(g, new SimpleMetrics());
+        assertTrue(r.isDag());
+        assertArrayEquals(KahnTopoSort.toArray(new KahnTopoSort().order(g, new SimpleMetrics())), r.order);
+    }
+
+    /** 0 -> {1, 2} cycle -> 3. */
+    private Graph cycleWithTail() {
+        Graph g = new Graph(4, true);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(2, 1, 1);
+        g.addEdge(2, 3, 1);
+        return g;
+    }
+
+    @Test
+    void cycleIsSignaledExplicitly() {
+        Graph g = cycleWithTail();
+        KahnTopoSort.Result r = new KahnTopoSort().sort(g, new SimpleMetrics());
+        assertFalse(r.isDag());
+        assertArrayEquals(new int[] { 0 }, r.order, "only the acyclic prefix is released");
+        assertTrue(new KahnTopoSort().order(g, new SimpleMetrics()).isEmpty());
+    }
+
+    @Test
+    void componentOrderExpandsToVertices() {
+        Graph g = cycleWithTail();
+        TarjanSCC.Result scc = new TarjanSCC().compute(g, new SimpleMetrics());
+        Graph cg = new CondensationGraphBuilder().build(g, scc.count(), scc.compId);
+        int[] compTopo = new KahnTopoSort().sort(cg, new SimpleMetrics()).order;
+
+        int[] order = MainTopo.deriveOriginalOrder(compTopo, scc);
+        int[] cycle = scc.membersOf(scc.compId[1]);
+        assertEquals(2, cycle.length);
+        assertArrayEquals(new int[] { 0, cycle[0], cycle[1], 3 }, order);
+        assertEquals(Set.of(1, 2), Set.of(order[1], order[2]));
+    }
 }